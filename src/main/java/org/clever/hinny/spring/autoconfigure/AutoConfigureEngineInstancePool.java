@@ -3,13 +3,12 @@ package org.clever.hinny.spring.autoconfigure;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.IOCase;
 import org.apache.commons.pool2.BasePooledObjectFactory;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.clever.hinny.api.ScriptEngineInstance;
 import org.clever.hinny.api.folder.ClassPathFolder;
 import org.clever.hinny.api.folder.FileSystemFolder;
 import org.clever.hinny.api.folder.Folder;
 import org.clever.hinny.api.pool.EngineInstancePool;
-import org.clever.hinny.api.pool.GenericEngineInstancePool;
 import org.clever.hinny.api.utils.Assert;
 import org.clever.hinny.api.watch.FileSystemWatcher;
 import org.clever.hinny.graaljs.pool.GraalSingleEngineFactory;
@@ -17,9 +16,29 @@ import org.clever.hinny.spring.config.Constant;
 import org.clever.hinny.spring.config.FileSystemType;
 import org.clever.hinny.spring.config.ScriptConfig;
 import org.clever.hinny.spring.config.ScriptEnginePoolConfig;
+import org.clever.hinny.spring.config.ScriptReloadMode;
+import org.clever.hinny.spring.folder.ClassPathScriptIndex;
+import org.clever.hinny.spring.pool.AdaptiveEnginePoolSizer;
+import org.clever.hinny.spring.pool.EngineInstanceListener;
+import org.clever.hinny.spring.pool.EngineInstancePoolFactory;
+import org.clever.hinny.spring.pool.EngineInstancePools;
+import org.clever.hinny.spring.pool.EngineInstanceStatistics;
+import org.clever.hinny.spring.pool.EngineInstanceWarmUp;
+import org.clever.hinny.spring.pool.SwitchableEngineInstancePool;
+import org.clever.hinny.spring.reload.BlueGreenPoolSwitcher;
+import org.clever.hinny.spring.reload.IncrementalModuleInvalidator;
+import org.clever.hinny.spring.reload.ReloadCoordinator;
+import org.clever.hinny.spring.reload.ScriptFileChangeListener;
+import org.clever.hinny.spring.watch.FileWatcher;
+import org.clever.hinny.spring.watch.NativeFileWatcher;
+import org.clever.hinny.spring.watch.PollingFileWatcher;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
 import org.graalvm.polyglot.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -28,6 +47,7 @@ import org.springframework.context.annotation.Configuration;
 
 import java.io.File;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 作者：lizw <br/>
@@ -58,79 +78,225 @@ public class AutoConfigureEngineInstancePool {
             log.info("#脚本文件绝对路径: {}", scriptAbsolutePath);
             folder = FileSystemFolder.createRootPath(scriptConfig.getScriptPath());
         } else if (Objects.equals(scriptConfig.getFileSystemType(), FileSystemType.Jar)) {
-            log.info("#脚本文件classpath文件模式: {}", "classpath:**/*.*");
-            folder = ClassPathFolder.createRootPath("classpath:**/*.*", scriptConfig.getScriptPath());
+            // 只匹配脚本根路径下的文件，避免解析整个classpath
+            String locationPattern = ClassPathScriptIndex.getLocationPattern(scriptConfig.getScriptPath());
+            log.info("#脚本文件classpath文件模式: {}", locationPattern);
+            folder = ClassPathFolder.createRootPath(locationPattern, scriptConfig.getScriptPath());
         } else {
             throw new IllegalArgumentException("配置fileSystemType错误：fileSystemType=" + scriptConfig.getFileSystemType());
         }
         return folder;
     }
 
-    @Bean("pooledObjectFactory")
+    /**
+     * 所有引擎实例(Context)共享的Engine，共享Engine的Context之间会共享Source的解析/编译结果
+     */
+    @Bean("scriptEngine")
     @ConditionalOnMissingBean
-    public BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> pooledObjectFactory(Folder rootFolder) {
-        Engine engine = Engine.newBuilder()
+    public Engine scriptEngine() {
+        return Engine.newBuilder()
                 .useSystemProperties(true)
                 .build();
+    }
+
+    @Bean("engineInstanceStatistics")
+    @ConditionalOnMissingBean
+    public EngineInstanceStatistics engineInstanceStatistics() {
+        return new EngineInstanceStatistics();
+    }
+
+    @Bean("pooledObjectFactory")
+    @ConditionalOnMissingBean
+    public BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> pooledObjectFactory(Folder rootFolder, Engine engine) {
         return new GraalSingleEngineFactory(rootFolder, engine);
     }
 
+    @Bean("engineInstancePoolFactory")
+    @ConditionalOnMissingBean
+    public EngineInstancePoolFactory engineInstancePoolFactory(
+            BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> graalEngineFactory,
+            ObjectProvider<EngineInstanceListener> engineInstanceListeners) {
+        return new EngineInstancePoolFactory(
+                scriptEnginePoolConfig,
+                graalEngineFactory,
+                engineInstanceListeners.orderedStream().collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * 蓝绿切换时使用SwitchableEngineInstancePool，切换引擎池后所有持有engineInstancePool的对象都使用新的引擎池
+     */
     @Bean("engineInstancePool")
     @ConditionalOnMissingBean
-    public EngineInstancePool<Context, Value> engineInstancePool(BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> graalEngineFactory) {
-        // 创建对象池配置
-        GenericObjectPoolConfig<ScriptEngineInstance<Context, Value>> config = new GenericObjectPoolConfig<>();
-        config.setLifo(scriptEnginePoolConfig.isLifo());
-        config.setFairness(scriptEnginePoolConfig.isFairness());
-        config.setMaxIdle(scriptEnginePoolConfig.getMaxIdle());
-        config.setMinIdle(scriptEnginePoolConfig.getMinIdle());
-        config.setMaxTotal(scriptEnginePoolConfig.getMaxTotal());
-        config.setMaxWaitMillis(scriptEnginePoolConfig.getMaxWaitMillis());
-        config.setBlockWhenExhausted(scriptEnginePoolConfig.isBlockWhenExhausted());
-        config.setTestOnCreate(scriptEnginePoolConfig.isTestOnCreate());
-        config.setTestOnBorrow(scriptEnginePoolConfig.isTestOnBorrow());
-        config.setTestOnReturn(scriptEnginePoolConfig.isTestOnReturn());
-        config.setTestWhileIdle(scriptEnginePoolConfig.isTestWhileIdle());
-        config.setTimeBetweenEvictionRunsMillis(scriptEnginePoolConfig.getTimeBetweenEvictionRunsMillis());
-        config.setNumTestsPerEvictionRun(scriptEnginePoolConfig.getNumTestsPerEvictionRun());
-        config.setMinEvictableIdleTimeMillis(scriptEnginePoolConfig.getMinEvictableIdleTimeMillis());
-        config.setSoftMinEvictableIdleTimeMillis(scriptEnginePoolConfig.getSoftMinEvictableIdleTimeMillis());
-        config.setEvictionPolicyClassName(scriptEnginePoolConfig.getEvictionPolicyClassName());
-        config.setEvictorShutdownTimeoutMillis(scriptEnginePoolConfig.getEvictorShutdownTimeoutMillis());
-        config.setJmxEnabled(scriptEnginePoolConfig.isJmxEnabled());
-        config.setJmxNamePrefix(scriptEnginePoolConfig.getJmxNamePrefix());
-        config.setJmxNameBase(scriptEnginePoolConfig.getJmxNameBase());
-        return new GenericEngineInstancePool<>(graalEngineFactory, config);
-    }
-
-    @Bean("scriptFileWatcher")
+    public EngineInstancePool<Context, Value> engineInstancePool(EngineInstancePoolFactory engineInstancePoolFactory) {
+        EngineInstancePool<Context, Value> pool = engineInstancePoolFactory.create();
+        if (Objects.equals(scriptConfig.getScriptFileWatcher().getReloadMode(), ScriptReloadMode.BlueGreen)) {
+            return new SwitchableEngineInstancePool(pool);
+        }
+        return pool;
+    }
+
+    @Bean(value = "adaptiveEnginePoolSizer", destroyMethod = "stop")
     @ConditionalOnMissingBean
-    @ConditionalOnProperty(prefix = Constant.Config_Root, name = "script-file-watcher.enable-watcher", havingValue = "true", matchIfMissing = true)
-    public FileSystemWatcher scriptFileWatcher(EngineInstancePool<Context, Value> pool) {
+    @ConditionalOnProperty(prefix = Constant.Config_Engine_Instance_Pool, name = "adaptive.enable", havingValue = "true")
+    public AdaptiveEnginePoolSizer adaptiveEnginePoolSizer(EngineInstancePool<Context, Value> pool, EngineInstanceStatistics engineInstanceStatistics) {
+        GenericObjectPool<?> objectPool = EngineInstancePools.getObjectPool(pool);
+        Assert.isTrue(objectPool != null, "当前引擎池[" + pool.getClass().getName() + "]不支持自适应大小");
+        AdaptiveEnginePoolSizer sizer = new AdaptiveEnginePoolSizer(objectPool, engineInstanceStatistics, scriptEnginePoolConfig);
+        sizer.start();
+        return sizer;
+    }
+
+    @Bean("incrementalModuleInvalidator")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Root, name = "script-file-watcher.reload-mode", havingValue = "Incremental")
+    public IncrementalModuleInvalidator incrementalModuleInvalidator() {
         Assert.isTrue(
                 Objects.equals(scriptConfig.getFileSystemType(), FileSystemType.FileSystem),
-                "当前FileSystemType[" + scriptConfig.getFileSystemType() + "]不支持监听文件变化"
+                "当前FileSystemType[" + scriptConfig.getFileSystemType() + "]不支持增量刷新脚本"
         );
-        FileSystemWatcher fileSystemWatcher = new FileSystemWatcher(
-                scriptConfig.getScriptPath(),
-                scriptConfig.getScriptFileWatcher().getInclude(),
-                scriptConfig.getScriptFileWatcher().getExclude(),
-                IOCase.SYSTEM,
-                event -> {
-                    log.info("#文件发生变化 | [{}] -> [{}]", event.getEventType(), event.getFileOrDir().getAbsolutePath());
+        return new IncrementalModuleInvalidator(scriptConfig.getScriptPath());
+    }
+
+    @Bean("engineInstanceWarmUp")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Engine_Instance_Pool, name = "warm-up.enable", havingValue = "true")
+    public EngineInstanceWarmUp engineInstanceWarmUp() {
+        return new EngineInstanceWarmUp(scriptEnginePoolConfig);
+    }
+
+    /**
+     * 应用启动完成之前预热引擎实例
+     */
+    @Bean("engineInstanceWarmUpRunner")
+    @ConditionalOnProperty(prefix = Constant.Config_Engine_Instance_Pool, name = "warm-up.enable", havingValue = "true")
+    public CommandLineRunner engineInstanceWarmUpRunner(EngineInstanceWarmUp warmUp, EngineInstancePool<Context, Value> pool) {
+        return args -> warmUp.warmUp(pool);
+    }
+
+    @Bean(value = "scriptReloadCoordinator", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "scriptReloadCoordinator")
+    @ConditionalOnProperty(prefix = Constant.Config_Root, name = "script-file-watcher.enable-watcher", havingValue = "true", matchIfMissing = true)
+    public ReloadCoordinator scriptReloadCoordinator(
+            EngineInstancePool<Context, Value> pool,
+            ObjectProvider<IncrementalModuleInvalidator> moduleInvalidator,
+            ObjectProvider<EngineInstanceWarmUp> warmUp,
+            ObjectProvider<ScriptFileChangeListener> fileChangeListeners,
+            ObjectProvider<BlueGreenPoolSwitcher> blueGreenPoolSwitcher) {
+        final ScriptConfig.FileWatcherConfig watcherConfig = scriptConfig.getScriptFileWatcher();
+        final boolean blueGreen = Objects.equals(watcherConfig.getReloadMode(), ScriptReloadMode.BlueGreen);
+        final IncrementalModuleInvalidator invalidator = Objects.equals(watcherConfig.getReloadMode(), ScriptReloadMode.Incremental)
+                ? moduleInvalidator.getIfAvailable()
+                : null;
+        return new ReloadCoordinator("script", watcherConfig.getBatch(), scriptConfig.getScriptPath(), files -> {
+            for (File fileOrDir : files) {
+                fileChangeListeners.orderedStream().forEach(listener -> {
                     try {
-                        pool.clear();
+                        listener.onFileChange(fileOrDir);
                     } catch (Exception e) {
-                        log.warn("清空脚本引擎池失败", e);
+                        log.warn("脚本文件变化监听处理失败 | listener={}", listener.getClass().getName(), e);
                     }
-                },
-                scriptConfig.getScriptFileWatcher().getInterval().toMillis(),
-                scriptConfig.getScriptFileWatcher().getDelayMillis().toMillis()
-        );
+                });
+            }
+            if (invalidator != null) {
+                try {
+                    for (File fileOrDir : files) {
+                        invalidator.onFileChange(fileOrDir);
+                    }
+                    return;
+                } catch (Exception e) {
+                    log.warn("增量刷新脚本模块失败，清空脚本引擎池", e);
+                }
+            }
+            final BlueGreenPoolSwitcher switcher = blueGreen ? blueGreenPoolSwitcher.getIfAvailable() : null;
+            if (switcher != null) {
+                try {
+                    switcher.reload();
+                    return;
+                } catch (Exception e) {
+                    log.warn("引擎池蓝绿切换失败，清空脚本引擎池", e);
+                }
+            }
+            // 一批文件变化只清空一次脚本引擎池
+            final EngineInstancePool<Context, Value> currentPool = switcher == null ? pool : switcher.getCurrentPool();
+            try {
+                currentPool.clear();
+                warmUp.ifAvailable(engineInstanceWarmUp -> engineInstanceWarmUp.warmUpAsync(currentPool));
+            } catch (Exception e) {
+                log.warn("清空脚本引擎池失败", e);
+            }
+        });
+    }
+
+    /**
+     * Polling模式(默认)的脚本文件监听，Bean类型与之前的版本相同(FileSystemWatcher)
+     */
+    @Bean(value = "scriptFileWatcher", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${" + Constant.Config_Root + ".script-file-watcher.enable-watcher:true} && !'Native'.equalsIgnoreCase('${" + Constant.Config_Root + ".script-file-watcher.watch-mode:Polling}')")
+    public FileSystemWatcher scriptFileWatcher(@Qualifier("scriptReloadCoordinator") ReloadCoordinator reloadCoordinator) {
+        checkScriptFileWatcher();
+        final FileSystemWatcher fileSystemWatcher = newScriptPollingWatcher(reloadCoordinator);
         if (scriptConfig.getScriptFileWatcher().isEnableWatcher()) {
             fileSystemWatcher.start();
             log.info("#已监听脚本文件，绝对路径: {}", scriptAbsolutePath);
         }
         return fileSystemWatcher;
     }
+
+    /**
+     * Native模式的脚本文件监听(Bean类型是FileWatcher，当前操作系统不支持时降级为Polling)
+     */
+    @Bean(value = "scriptFileWatcher", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${" + Constant.Config_Root + ".script-file-watcher.enable-watcher:true} && 'Native'.equalsIgnoreCase('${" + Constant.Config_Root + ".script-file-watcher.watch-mode:Polling}')")
+    public FileWatcher scriptNativeFileWatcher(@Qualifier("scriptReloadCoordinator") ReloadCoordinator reloadCoordinator) {
+        checkScriptFileWatcher();
+        final ScriptConfig.FileWatcherConfig watcherConfig = scriptConfig.getScriptFileWatcher();
+        FileWatcher fileWatcher;
+        if (NativeFileWatcher.isSupported()) {
+            fileWatcher = new NativeFileWatcher(
+                    scriptConfig.getScriptPath(),
+                    ReloadCoordinator.withMarkerFile(watcherConfig.getInclude(), watcherConfig.getBatch()),
+                    watcherConfig.getExclude(),
+                    IOCase.SYSTEM,
+                    event -> onScriptFileChange(reloadCoordinator, event.getEventType(), event.getFileOrDir()),
+                    watcherConfig.getDelayMillis().toMillis()
+            );
+        } else {
+            log.warn("#当前操作系统不支持原生文件事件，脚本文件监听降级为Polling模式");
+            FileSystemWatcher fileSystemWatcher = newScriptPollingWatcher(reloadCoordinator);
+            fileWatcher = new PollingFileWatcher(fileSystemWatcher::start, fileSystemWatcher::stop);
+        }
+        if (watcherConfig.isEnableWatcher()) {
+            fileWatcher.start();
+            log.info("#已监听脚本文件，绝对路径: {}", scriptAbsolutePath);
+        }
+        return fileWatcher;
+    }
+
+    private void checkScriptFileWatcher() {
+        Assert.isTrue(
+                Objects.equals(scriptConfig.getFileSystemType(), FileSystemType.FileSystem),
+                "当前FileSystemType[" + scriptConfig.getFileSystemType() + "]不支持监听文件变化"
+        );
+    }
+
+    private FileSystemWatcher newScriptPollingWatcher(ReloadCoordinator reloadCoordinator) {
+        final ScriptConfig.FileWatcherConfig watcherConfig = scriptConfig.getScriptFileWatcher();
+        return new FileSystemWatcher(
+                scriptConfig.getScriptPath(),
+                ReloadCoordinator.withMarkerFile(watcherConfig.getInclude(), watcherConfig.getBatch()),
+                watcherConfig.getExclude(),
+                IOCase.SYSTEM,
+                event -> onScriptFileChange(reloadCoordinator, event.getEventType(), event.getFileOrDir()),
+                watcherConfig.getInterval().toMillis(),
+                watcherConfig.getDelayMillis().toMillis()
+        );
+    }
+
+    private static void onScriptFileChange(ReloadCoordinator reloadCoordinator, Object eventType, File fileOrDir) {
+        log.info("#文件发生变化 | [{}] -> [{}]", eventType, fileOrDir.getAbsolutePath());
+        reloadCoordinator.onFileChange(fileOrDir);
+    }
 }
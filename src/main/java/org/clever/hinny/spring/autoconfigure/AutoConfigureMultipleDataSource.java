@@ -10,13 +10,26 @@ import org.clever.hinny.data.jdbc.mybatis.MyBatisMapperSql;
 import org.clever.hinny.graal.data.jdbc.JdbcDatabase;
 import org.clever.hinny.graal.data.jdbc.MyBatisJdbcDatabase;
 import org.clever.hinny.graal.meta.data.MateDataManage;
+import org.clever.hinny.spring.config.Constant;
+import org.clever.hinny.spring.config.DataSourceInitMode;
 import org.clever.hinny.spring.config.MultipleDataSourceConfig;
+import org.clever.hinny.spring.jdbc.DataSourceEndpoint;
+import org.clever.hinny.spring.jdbc.DynamicDataSourceManager;
+import org.clever.hinny.spring.jdbc.HikariDataSourceInitializer;
+import org.clever.hinny.spring.jdbc.JdbcBulkOperations;
+import org.clever.hinny.spring.jdbc.ReadWriteRoutingDataSource;
+import org.clever.hinny.spring.pool.ScriptGlobalBinding;
 import org.clever.hinny.spring.utils.MergeDataSourceConfig;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 
@@ -43,18 +56,69 @@ public class AutoConfigureMultipleDataSource implements CommandLineRunner {
     private final List<DataSource> dataSourceList = new ArrayList<>();
     private final MultipleDataSourceConfig multipleDataSourceConfig;
     private final MyBatisMapperSql mybatisMapperSql;
+    private final ObjectProvider<JdbcBulkOperations> jdbcBulkOperations;
+    private final ObjectProvider<DynamicDataSourceManager> dynamicDataSourceManager;
 
     protected boolean initialized = false;
 
     public AutoConfigureMultipleDataSource(
             ObjectProvider<DataSource> dataSourceList,
             ObjectProvider<MultipleDataSourceConfig> multipleDataSourceConfig,
-            ObjectProvider<MyBatisMapperSql> mybatisMapperSql) {
+            ObjectProvider<MyBatisMapperSql> mybatisMapperSql,
+            ObjectProvider<JdbcBulkOperations> jdbcBulkOperations,
+            ObjectProvider<DynamicDataSourceManager> dynamicDataSourceManager) {
         for (DataSource dataSource : dataSourceList) {
             this.dataSourceList.add(dataSource);
         }
         this.multipleDataSourceConfig = multipleDataSourceConfig.getIfAvailable() == null ? new MultipleDataSourceConfig() : multipleDataSourceConfig.getIfAvailable();
         this.mybatisMapperSql = mybatisMapperSql.getIfAvailable();
+        this.jdbcBulkOperations = jdbcBulkOperations;
+        this.dynamicDataSourceManager = dynamicDataSourceManager;
+    }
+
+    @Bean("jdbcBulkOperations")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Multiple_Jdbc_Config, name = "bulk.enable", havingValue = "true")
+    public JdbcBulkOperations jdbcBulkOperations() {
+        MultipleDataSourceConfig.BulkConfig bulk = multipleDataSourceConfig.getBulk();
+        return new JdbcBulkOperations(bulk.getBatchSize(), bulk.getFetchSize());
+    }
+
+    /**
+     * 在脚本中注册批量写入与流式查询对象
+     */
+    @Bean("jdbcBulkScriptBinding")
+    @ConditionalOnBean(JdbcBulkOperations.class)
+    public ScriptGlobalBinding jdbcBulkScriptBinding(JdbcBulkOperations jdbcBulkOperations) {
+        return new ScriptGlobalBinding(multipleDataSourceConfig.getBulk().getScriptObjectName(), jdbcBulkOperations);
+    }
+
+    /**
+     * 运行时管理数据源
+     */
+    @Bean("dynamicDataSourceManager")
+    @ConditionalOnMissingBean
+    public DynamicDataSourceManager dynamicDataSourceManager() {
+        final MultipleDataSourceConfig.InitConfig initConfig = multipleDataSourceConfig.getInit();
+        return new DynamicDataSourceManager(
+                multipleDataSourceConfig.getGlobalConfig(),
+                multipleDataSourceConfig.getBulk().getDriverProperties(),
+                new HikariDataSourceInitializer(initConfig.getMode(), initConfig.getParallelism()),
+                CanInit_MyBatisJdbcDatabase ? mybatisMapperSql : null,
+                jdbcBulkOperations.getIfAvailable(),
+                CanInit_MateDataManage,
+                multipleDataSourceConfig.getDrainTimeout().toMillis()
+        );
+    }
+
+    @Configuration
+    @ConditionalOnClass({Endpoint.class})
+    public static class DataSourceEndpointConfiguration {
+        @Bean("dataSourceEndpoint")
+        @ConditionalOnMissingBean
+        public DataSourceEndpoint dataSourceEndpoint(DynamicDataSourceManager dynamicDataSourceManager) {
+            return new DataSourceEndpoint(dynamicDataSourceManager);
+        }
     }
 
     @Override
@@ -99,57 +163,78 @@ public class AutoConfigureMultipleDataSource implements CommandLineRunner {
         }
         // 初始化配置的数据源
         final HikariConfig dataSourceGlobalConfig = multipleDataSourceConfig.getGlobalConfig();
+        final Map<String, HikariConfig> hikariConfigMap = new LinkedHashMap<>(multipleDataSourceConfig.getJdbcMap().size());
         multipleDataSourceConfig.getJdbcMap().forEach((name, hikariConfig) -> {
             if (dataSourceMap.containsKey(name)) {
                 throw new RuntimeException("JdbcDataSource 名称重复: " + name);
             }
             hikariConfig = MergeDataSourceConfig.mergeConfig(dataSourceGlobalConfig, hikariConfig);
+            MergeDataSourceConfig.mergeDataSourceProperties(hikariConfig, multipleDataSourceConfig.getBulk().getDriverProperties());
             if (StringUtils.isBlank(hikariConfig.getPoolName())) {
                 hikariConfig.setPoolName(name);
             }
-            HikariDataSource hikariDataSource = new HikariDataSource(hikariConfig);
-            dataSourceMap.put(name, hikariDataSource);
+            hikariConfigMap.put(name, hikariConfig);
         });
-        final Map<String, DataSource> result = Collections.unmodifiableMap(dataSourceMap);
-        // 关闭连接池
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> result.forEach((name, dataSource) -> {
-            if (dataSource instanceof HikariDataSource) {
-                HikariDataSource tmp = (HikariDataSource) dataSource;
-                tmp.close();
+        final MultipleDataSourceConfig.InitConfig initConfig = multipleDataSourceConfig.getInit();
+        dataSourceMap.putAll(new HikariDataSourceInitializer(initConfig.getMode(), initConfig.getParallelism()).createAll(hikariConfigMap));
+        // 初始化读写分离数据源
+        multipleDataSourceConfig.getRoutingMap().forEach((name, routingConfig) -> {
+            if (dataSourceMap.containsKey(name)) {
+                throw new RuntimeException("JdbcDataSource 名称重复: " + name);
             }
-            // 其他类型的连接池也要关闭连接池
-        })));
+            dataSourceMap.put(name, createRoutingDataSource(name, routingConfig, dataSourceMap));
+        });
+        final DynamicDataSourceManager dataSourceManager = dynamicDataSourceManager.getObject();
+        // 关闭连接池(包含运行时新增的连接池)
+        Runtime.getRuntime().addShutdownHook(new Thread(dataSourceManager::closeAll));
         // 初始化 JdbcDatabase、MyBatisJdbcDatabase、MateDataManage
-        for (Map.Entry<String, DataSource> entry : dataSourceMap.entrySet()) {
-            String name = entry.getKey();
-            DataSource dataSource = entry.getValue();
-            JdbcDataSource jdbcDataSource = new JdbcDataSource(dataSource);
-            if (CanInit_JdbcDatabase) {
-                JdbcDatabase.Instance.add(name, jdbcDataSource);
-                log.info("初始化 JdbcDataSource: {}", name);
-            }
-            if (CanInit_MyBatisJdbcDatabase && mybatisMapperSql != null) {
-                MyBatisJdbcDataSource myBatisJdbcDataSource = new MyBatisJdbcDataSource(jdbcDataSource, mybatisMapperSql);
-                MyBatisJdbcDatabase.Instance.add(name, myBatisJdbcDataSource);
-                log.info("初始化 MyBatisJdbcDataSource: {}", name);
-            }
-            if (CanInit_MateDataManage) {
-                MateDataManage.Instance.add(name, dataSource);
-                log.info("初始化 MateDataManage DataSource: {}", name);
+        dataSourceMap.forEach(dataSourceManager::register);
+        dataSourceManager.setDefault(multipleDataSourceConfig.getDefaultName());
+        if (Objects.equals(initConfig.getMode(), DataSourceInitMode.Lazy)) {
+            logStartedLazyDataSources(hikariConfigMap.keySet(), dataSourceMap);
+        }
+    }
+
+    /**
+     * Lazy模式下输出注册数据源时已经创建了连接池的数据源(JdbcDataSource、MateDataManage在创建时获取了数据库连接)
+     */
+    protected static void logStartedLazyDataSources(Collection<String> names, Map<String, DataSource> dataSourceMap) {
+        final List<String> startedNames = new ArrayList<>();
+        for (String name : names) {
+            DataSource dataSource = dataSourceMap.get(name);
+            if (dataSource instanceof HikariDataSource && ((HikariDataSource) dataSource).getHikariPoolMXBean() != null) {
+                startedNames.add(name);
             }
         }
-        if (CanInit_JdbcDatabase) {
-            JdbcDatabase.Instance.setDefault(multipleDataSourceConfig.getDefaultName());
-            log.info("默认的 JdbcDataSource: {}", JdbcDatabase.Instance.getDefaultName());
+        if (!startedNames.isEmpty()) {
+            log.info("#Lazy模式的数据源在注册时已创建连接池: {}", startedNames);
         }
-        if (CanInit_MyBatisJdbcDatabase && mybatisMapperSql != null) {
-            MyBatisJdbcDatabase.Instance.setDefault(multipleDataSourceConfig.getDefaultName());
-            log.info("默认的 MyBatisJdbcDataSource: {}", multipleDataSourceConfig.getDefaultName());
+    }
+
+    protected static ReadWriteRoutingDataSource createRoutingDataSource(
+            String name,
+            MultipleDataSourceConfig.RoutingConfig routingConfig,
+            Map<String, DataSource> dataSourceMap) {
+        DataSource primary = dataSourceMap.get(routingConfig.getPrimary());
+        if (primary == null) {
+            throw new RuntimeException("读写分离数据源 " + name + " 的主库不存在: " + routingConfig.getPrimary());
         }
-        if (CanInit_MateDataManage) {
-            MateDataManage.Instance.setDefault(multipleDataSourceConfig.getDefaultName());
-            log.info("默认的 MateDataManage DataSource: {}", multipleDataSourceConfig.getDefaultName());
+        Map<String, DataSource> replicas = new LinkedHashMap<>(routingConfig.getReplicas().size());
+        for (String replicaName : routingConfig.getReplicas()) {
+            DataSource replica = dataSourceMap.get(replicaName);
+            if (replica == null) {
+                throw new RuntimeException("读写分离数据源 " + name + " 的从库不存在: " + replicaName);
+            }
+            replicas.put(replicaName, replica);
         }
+        log.info("初始化读写分离数据源: {} | 主库: {} | 从库: {}", name, routingConfig.getPrimary(), replicas.keySet());
+        return new ReadWriteRoutingDataSource(
+                name,
+                primary,
+                replicas,
+                routingConfig.getStrategy(),
+                routingConfig.getFailbackInterval().toMillis()
+        );
     }
 
     protected static boolean existsHikariDataSource() {
@@ -1,24 +1,45 @@
 package org.clever.hinny.spring.autoconfigure;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.clever.hinny.data.redis.RedisDataSource;
 import org.clever.hinny.graal.data.redis.RedisDatabase;
 import org.clever.hinny.graaljs.jackson.JacksonMapperSupport;
+import org.clever.hinny.spring.config.Constant;
+import org.clever.hinny.spring.config.DataSourceInitMode;
 import org.clever.hinny.spring.config.MultipleRedisConfig;
+import org.clever.hinny.spring.config.ScriptMvcHandlerConfig;
+import org.clever.hinny.spring.metrics.RedisNearCacheMetrics;
+import org.clever.hinny.spring.mvc.ScriptResultRemoteStore;
+import org.clever.hinny.spring.pool.ScriptGlobalBinding;
+import org.clever.hinny.spring.redis.RedisBatchOperations;
+import org.clever.hinny.spring.redis.MultipleRedisHealthIndicator;
+import org.clever.hinny.spring.redis.RedisConnectionRegistry;
+import org.clever.hinny.spring.redis.RedisDataSourceInitializer;
+import org.clever.hinny.spring.redis.RedisNearCacheManager;
+import org.clever.hinny.spring.redis.RedisObjectMapperFactory;
+import org.clever.hinny.spring.redis.RedisScriptResultStore;
 import org.clever.hinny.spring.utils.MergeRedisProperties;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 作者：lizw <br/>
@@ -33,13 +54,156 @@ public class AutoConfigureMultipleRedis implements CommandLineRunner {
     private final MultipleRedisConfig multipleRedisConfig;
     private final List<RedisConnectionFactory> redisConnectionFactoryList;
     private final ObjectMapper objectMapper;
+    private final ObjectProvider<RedisDataSourceInitializer> redisDataSourceInitializer;
+    private final ObjectProvider<RedisConnectionRegistry> redisConnectionRegistry;
+    /**
+     * 数据源名称 --> ObjectMapper(RedisDataSource与RedisConnectionRegistry使用同一个ObjectMapper)
+     */
+    private final Map<String, ObjectMapper> objectMapperMap = new ConcurrentHashMap<>();
 
     protected boolean initialized = false;
 
-    public AutoConfigureMultipleRedis(ObjectProvider<List<RedisConnectionFactory>> redisConnectionFactoryList, MultipleRedisConfig multipleRedisConfig) {
+    public AutoConfigureMultipleRedis(
+            ObjectProvider<List<RedisConnectionFactory>> redisConnectionFactoryList,
+            MultipleRedisConfig multipleRedisConfig,
+            ObjectProvider<RedisDataSourceInitializer> redisDataSourceInitializer,
+            ObjectProvider<RedisConnectionRegistry> redisConnectionRegistry) {
         this.redisConnectionFactoryList = redisConnectionFactoryList.getIfAvailable();
         this.multipleRedisConfig = multipleRedisConfig;
         this.objectMapper = JacksonMapperSupport.getRedisJacksonMapper().getMapper();
+        this.redisDataSourceInitializer = redisDataSourceInitializer;
+        this.redisConnectionRegistry = redisConnectionRegistry;
+    }
+
+    /**
+     * multiple-redis数据源的RedisConnectionFactory(RedisDataSource和starter中的缓存等功能共用)
+     */
+    @Bean(value = "redisConnectionRegistry", destroyMethod = "destroy")
+    @ConditionalOnMissingBean
+    public RedisConnectionRegistry redisConnectionRegistry() {
+        RedisConnectionRegistry registry = new RedisConnectionRegistry();
+        if (redisConnectionFactoryList != null) {
+            int index = 0;
+            for (RedisConnectionFactory redisConnectionFactory : redisConnectionFactoryList) {
+                index++;
+                String name = String.format("autowired-redis-%s", index);
+                registry.register(name, redisConnectionFactory, getObjectMapper(name));
+            }
+        }
+        final RedisProperties globalConfig = multipleRedisConfig.getGlobalConfig();
+        multipleRedisConfig.getRedisMap().forEach((name, redisConfig) -> registry.register(name, MergeRedisProperties.mergeConfig(globalConfig, redisConfig), getObjectMapper(name)));
+        return registry;
+    }
+
+    /**
+     * 创建multiple-redis数据源并记录初始化状态
+     */
+    @Bean("redisDataSourceInitializer")
+    @ConditionalOnMissingBean
+    public RedisDataSourceInitializer redisDataSourceInitializer() {
+        MultipleRedisConfig.InitConfig init = multipleRedisConfig.getInit();
+        return new RedisDataSourceInitializer(init.getMode(), init.getParallelism(), init.getTimeout().toMillis());
+    }
+
+    @Bean(value = "redisBatchOperations", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Multiple_Redis_Config, name = "batch.enable", havingValue = "true")
+    public RedisBatchOperations redisBatchOperations(RedisConnectionRegistry redisConnectionRegistry) {
+        MultipleRedisConfig.BatchConfig batch = multipleRedisConfig.getBatch();
+        return new RedisBatchOperations(
+                redisConnectionRegistry,
+                multipleRedisConfig.getDefaultName(),
+                TimeUnit.NANOSECONDS.toMicros(batch.getAutoBatchWindow().toNanos()),
+                batch.getMaxBatchSize(),
+                batch.getReadTimeout().toMillis()
+        );
+    }
+
+    /**
+     * 在脚本中注册redis批量操作对象
+     */
+    @Bean("redisBatchScriptBinding")
+    @ConditionalOnBean(RedisBatchOperations.class)
+    public ScriptGlobalBinding redisBatchScriptBinding(RedisBatchOperations redisBatchOperations) {
+        return new ScriptGlobalBinding(multipleRedisConfig.getBatch().getScriptObjectName(), redisBatchOperations);
+    }
+
+    @Bean(value = "redisNearCacheManager", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Multiple_Redis_Config, name = "near-cache.enable", havingValue = "true")
+    public RedisNearCacheManager redisNearCacheManager(RedisConnectionRegistry redisConnectionRegistry) {
+        MultipleRedisConfig.NearCacheConfig nearCache = multipleRedisConfig.getNearCache();
+        return new RedisNearCacheManager(
+                redisConnectionRegistry,
+                multipleRedisConfig.getDefaultName(),
+                nearCache.getNames(),
+                nearCache.getMaxSize(),
+                nearCache.getTtl().toMillis(),
+                nearCache.getKeyPrefix(),
+                nearCache.isConfigureNotifications()
+        );
+    }
+
+    /**
+     * 在脚本中注册redis近端缓存对象
+     */
+    @Bean("redisNearCacheScriptBinding")
+    @ConditionalOnBean(RedisNearCacheManager.class)
+    public ScriptGlobalBinding redisNearCacheScriptBinding(RedisNearCacheManager redisNearCacheManager) {
+        return new ScriptGlobalBinding(multipleRedisConfig.getNearCache().getScriptObjectName(), redisNearCacheManager);
+    }
+
+    /**
+     * 脚本执行结果二级缓存
+     */
+    @Bean(value = "scriptResultRemoteStore", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(ScriptResultRemoteStore.class)
+    @ConditionalOnProperty(prefix = Constant.Config_Mvc_Handler, name = {"result-cache.enable", "result-cache.redis-name"})
+    public RedisScriptResultStore scriptResultRemoteStore(RedisConnectionRegistry redisConnectionRegistry, ObjectProvider<ScriptMvcHandlerConfig> scriptMvcHandlerConfig) {
+        ScriptMvcHandlerConfig.ResultCacheConfig resultCache = Objects.requireNonNull(scriptMvcHandlerConfig.getIfAvailable()).getResultCache();
+        RedisScriptResultStore store = new RedisScriptResultStore(
+                redisConnectionRegistry,
+                resultCache.getRedisName(),
+                resultCache.getRedisKeyPrefix(),
+                resultCache.getInvalidateChannel()
+        );
+        store.start();
+        return store;
+    }
+
+    @Configuration
+    @ConditionalOnClass({MeterRegistry.class})
+    public static class RedisNearCacheMetricsConfiguration {
+        @Bean("redisNearCacheMetrics")
+        @ConditionalOnMissingBean
+        @ConditionalOnProperty(prefix = Constant.Config_Multiple_Redis_Config, name = "near-cache.enable", havingValue = "true")
+        public RedisNearCacheMetrics redisNearCacheMetrics(RedisNearCacheManager redisNearCacheManager) {
+            return new RedisNearCacheMetrics(redisNearCacheManager);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass({HealthIndicator.class})
+    public static class MultipleRedisHealthConfiguration {
+        @Bean(value = "multipleRedisHealthIndicator", destroyMethod = "shutdown")
+        @ConditionalOnMissingBean(name = "multipleRedisHealthIndicator")
+        @ConditionalOnProperty(prefix = Constant.Config_Multiple_Redis_Config, name = "health.enable", havingValue = "true", matchIfMissing = true)
+        public MultipleRedisHealthIndicator multipleRedisHealthIndicator(
+                MultipleRedisConfig multipleRedisConfig,
+                RedisDataSourceInitializer redisDataSourceInitializer,
+                RedisConnectionRegistry redisConnectionRegistry) {
+            MultipleRedisConfig.HealthConfig health = multipleRedisConfig.getHealth();
+            List<String> requiredNames = health.getRequiredNames();
+            if (requiredNames == null || requiredNames.isEmpty()) {
+                requiredNames = Collections.singletonList(multipleRedisConfig.getDefaultName());
+            }
+            return new MultipleRedisHealthIndicator(
+                    redisDataSourceInitializer,
+                    redisConnectionRegistry,
+                    requiredNames,
+                    health.getTimeout().toMillis()
+            );
+        }
     }
 
     @Override
@@ -56,26 +220,50 @@ public class AutoConfigureMultipleRedis implements CommandLineRunner {
             int index = 0;
             for (RedisConnectionFactory redisConnectionFactory : redisConnectionFactoryList) {
                 index++;
-                RedisDataSource redisDataSource = new RedisDataSource(redisConnectionFactory, objectMapper);
                 String name = String.format("autowired-redis-%s", index);
+                RedisDataSource redisDataSource = new RedisDataSource(redisConnectionFactory, getObjectMapper(name));
                 RedisDatabase.Instance.add(name, redisDataSource);
                 log.info("初始化 RedisDataSource: {}", name);
             }
         }
         // 初始化配置的数据源
         final RedisProperties globalConfig = multipleRedisConfig.getGlobalConfig();
-        final Map<String, RedisDataSource> destroyMap = new HashMap<>(multipleRedisConfig.getRedisMap().size());
+        final RedisDataSourceInitializer initializer = redisDataSourceInitializer.getObject();
+        final RedisConnectionRegistry connectionRegistry = redisConnectionRegistry.getIfAvailable();
+        final Map<String, RedisDataSource> destroyMap = new ConcurrentHashMap<>(multipleRedisConfig.getRedisMap().size());
+        final Map<String, Callable<RedisDataSource>> tasks = new LinkedHashMap<>(multipleRedisConfig.getRedisMap().size());
+        final boolean lazy = Objects.equals(initializer.getMode(), DataSourceInitMode.Lazy);
         multipleRedisConfig.getRedisMap().forEach((name, redisConfig) -> {
             if (RedisDatabase.Instance.hasDataSource(name)) {
                 throw new RuntimeException("redis数据源名称重复: " + name);
             }
-            redisConfig = MergeRedisProperties.mergeConfig(globalConfig, redisConfig);
-            RedisDataSource redisDataSource = new RedisDataSource(redisConfig, objectMapper);
-            RedisDatabase.Instance.add(name, redisDataSource);
+            final RedisProperties mergedConfig = MergeRedisProperties.mergeConfig(globalConfig, redisConfig);
+            tasks.put(name, () -> {
+                final RedisConnectionFactory connectionFactory = connectionRegistry == null ? null : connectionRegistry.getConnectionFactory(name);
+                if (connectionFactory == null) {
+                    RedisDataSource redisDataSource = new RedisDataSource(mergedConfig, getObjectMapper(name));
+                    destroyMap.put(name, redisDataSource);
+                    return redisDataSource;
+                }
+                // 使用RedisConnectionRegistry中的RedisConnectionFactory(与RedisBatch、近端缓存、健康检查共用连接，由RedisConnectionRegistry关闭)
+                if (!lazy) {
+                    // 启动时建立连接(Lazy模式第一次执行命令时才连接)
+                    RedisConnection connection = connectionFactory.getConnection();
+                    connection.close();
+                }
+                return new RedisDataSource(connectionFactory, getObjectMapper(name));
+            });
+        });
+        initializer.createAll(tasks, (name, redisDataSource) -> {
+            synchronized (RedisDatabase.Instance) {
+                RedisDatabase.Instance.add(name, redisDataSource);
+            }
             log.info("初始化 RedisDataSource: {}", name);
-            destroyMap.put(name, redisDataSource);
         });
         if (!RedisDatabase.Instance.hasDataSource(multipleRedisConfig.getDefaultName())) {
+            if (initializer.getStates().containsKey(multipleRedisConfig.getDefaultName())) {
+                throw new RuntimeException("默认的redis数据源初始化超时,DefaultName: " + multipleRedisConfig.getDefaultName());
+            }
             throw new RuntimeException("默认的redis数据源不存在,DefaultName: " + multipleRedisConfig.getDefaultName());
         }
         RedisDatabase.Instance.setDefault(multipleRedisConfig.getDefaultName());
@@ -91,4 +279,23 @@ public class AutoConfigureMultipleRedis implements CommandLineRunner {
             }
         })));
     }
+
+    /**
+     * 根据数据源的序列化配置获取ObjectMapper
+     */
+    private ObjectMapper getObjectMapper(String name) {
+        return objectMapperMap.computeIfAbsent(name, this::createObjectMapper);
+    }
+
+    private ObjectMapper createObjectMapper(String name) {
+        MultipleRedisConfig.SerializerConfig serializerConfig = multipleRedisConfig.getSerializerMap().get(name);
+        if (serializerConfig == null) {
+            serializerConfig = multipleRedisConfig.getGlobalSerializer();
+        }
+        ObjectMapper redisObjectMapper = RedisObjectMapperFactory.create(objectMapper, serializerConfig);
+        if (redisObjectMapper != objectMapper) {
+            log.info("RedisDataSource: {} 序列化格式: {} | 压缩: {}", name, serializerConfig.getType(), serializerConfig.isCompress());
+        }
+        return redisObjectMapper;
+    }
 }
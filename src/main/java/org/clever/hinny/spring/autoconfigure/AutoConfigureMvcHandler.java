@@ -1,17 +1,40 @@
 package org.clever.hinny.spring.autoconfigure;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.api.utils.Assert;
 import org.clever.hinny.graal.mvc.HttpRequestGraalScriptHandler;
 import org.clever.hinny.mvc.DefaultExceptionResolver;
 import org.clever.hinny.mvc.ExceptionResolver;
 import org.clever.hinny.mvc.HttpRequestScriptHandler;
+import org.clever.hinny.spring.config.Constant;
+import org.clever.hinny.spring.config.ScriptConfig;
 import org.clever.hinny.spring.config.ScriptMvcHandlerConfig;
+import org.clever.hinny.spring.folder.ClassPathScriptIndex;
+import org.clever.hinny.spring.mvc.AsyncScriptExecutor;
+import org.clever.hinny.spring.mvc.RouteTimeouts;
+import org.clever.hinny.spring.mvc.ScriptExecutionStatistics;
+import org.clever.hinny.spring.mvc.ScriptHandlerInterceptor;
+import org.clever.hinny.spring.mvc.ScriptNegativeCache;
+import org.clever.hinny.spring.mvc.ScriptPathResolver;
+import org.clever.hinny.spring.mvc.ScriptResultCache;
+import org.clever.hinny.spring.mvc.ScriptResultRemoteStore;
+import org.clever.hinny.spring.mvc.ScriptRouteIndex;
+import org.clever.hinny.spring.pool.AdaptiveEnginePoolSizer;
+import org.clever.hinny.spring.pool.EngineInstancePoolFactory;
+import org.clever.hinny.spring.pool.EngineInstancePools;
+import org.clever.hinny.spring.pool.EngineInstanceWarmUp;
+import org.clever.hinny.spring.pool.EngineInstanceWatchdog;
+import org.clever.hinny.spring.pool.SwitchableEngineInstancePool;
+import org.clever.hinny.spring.reload.BlueGreenPoolSwitcher;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Value;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,6 +52,11 @@ import java.util.Objects;
 @EnableConfigurationProperties({ScriptMvcHandlerConfig.class})
 @Slf4j
 public class AutoConfigureMvcHandler {
+    /**
+     * 最多统计执行时间的脚本数量
+     */
+    private static final int Max_Statistics_Script_Count = 1024;
+
     private final ScriptMvcHandlerConfig scriptMvcHandlerConfig;
 
     public AutoConfigureMvcHandler(ScriptMvcHandlerConfig scriptMvcHandlerConfig) {
@@ -41,23 +69,160 @@ public class AutoConfigureMvcHandler {
         return DefaultExceptionResolver.Instance;
     }
 
-    @Bean("httpRequestScriptHandler")
+    @Bean("scriptPathResolver")
     @ConditionalOnMissingBean
-    public HttpRequestScriptHandler<Context, Value> httpRequestScriptHandler(
-            ObjectProvider<EngineInstancePool<Context, Value>> pool,
-            ObjectProvider<ConversionService> conversionService,
-            ExceptionResolver exceptionResolver) {
+    public ScriptPathResolver scriptPathResolver() {
         LinkedHashMap<String, String> supportPrefix = new LinkedHashMap<>(scriptMvcHandlerConfig.getPrefixMappings().size());
         for (ScriptMvcHandlerConfig.PrefixMapping mapping : scriptMvcHandlerConfig.getPrefixMappings()) {
             supportPrefix.put(mapping.getRequestPath(), mapping.getScriptPath());
         }
+        return new ScriptPathResolver(supportPrefix, scriptMvcHandlerConfig.getSupportSuffix());
+    }
+
+    @Bean("httpRequestScriptHandler")
+    @ConditionalOnMissingBean
+    public HttpRequestScriptHandler<Context, Value> httpRequestScriptHandler(
+            ObjectProvider<EngineInstancePool<Context, Value>> pool,
+            ObjectProvider<ConversionService> conversionService,
+            ExceptionResolver exceptionResolver,
+            ScriptPathResolver scriptPathResolver) {
+        return createHttpRequestScriptHandler(Objects.requireNonNull(pool.getIfAvailable()), conversionService, exceptionResolver, scriptPathResolver);
+    }
+
+    private HttpRequestScriptHandler<Context, Value> createHttpRequestScriptHandler(
+            EngineInstancePool<Context, Value> pool,
+            ObjectProvider<ConversionService> conversionService,
+            ExceptionResolver exceptionResolver,
+            ScriptPathResolver scriptPathResolver) {
         return new HttpRequestGraalScriptHandler(
-                supportPrefix,
+                scriptPathResolver.getPrefixMappings(),
                 scriptMvcHandlerConfig.getSupportSuffix(),
                 scriptMvcHandlerConfig.getCorsConfig(),
-                Objects.requireNonNull(pool.getIfAvailable()),
+                pool,
                 exceptionResolver == null ? DefaultExceptionResolver.Instance : exceptionResolver,
                 conversionService
         );
     }
+
+    @Bean("scriptExecutionStatistics")
+    @ConditionalOnMissingBean
+    public ScriptExecutionStatistics scriptExecutionStatistics() {
+        return new ScriptExecutionStatistics(Max_Statistics_Script_Count);
+    }
+
+    @Bean("scriptRouteIndex")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Mvc_Handler, name = "enable-route-index", havingValue = "true")
+    public ScriptRouteIndex scriptRouteIndex(
+            ScriptPathResolver scriptPathResolver,
+            ObjectProvider<ScriptConfig> scriptConfig,
+            ObjectProvider<ClassPathScriptIndex> classPathScriptIndex) {
+        ScriptConfig config = Objects.requireNonNull(scriptConfig.getIfAvailable());
+        ScriptRouteIndex scriptRouteIndex = new ScriptRouteIndex(
+                scriptPathResolver,
+                config.getFileSystemType(),
+                config.getScriptPath(),
+                classPathScriptIndex.getIfAvailable()
+        );
+        scriptRouteIndex.init();
+        return scriptRouteIndex;
+    }
+
+    @Bean("scriptNegativeCache")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Mvc_Handler, name = "negative-cache.enable", havingValue = "true")
+    public ScriptNegativeCache scriptNegativeCache() {
+        ScriptMvcHandlerConfig.NegativeCacheConfig negativeCache = scriptMvcHandlerConfig.getNegativeCache();
+        return new ScriptNegativeCache(negativeCache.getMaxSize(), negativeCache.getTtl().toMillis());
+    }
+
+    @Bean("scriptResultCache")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Mvc_Handler, name = "result-cache.enable", havingValue = "true")
+    public ScriptResultCache scriptResultCache(ObjectProvider<ScriptResultRemoteStore> scriptResultRemoteStore) {
+        ScriptMvcHandlerConfig.ResultCacheConfig resultCache = scriptMvcHandlerConfig.getResultCache();
+        return new ScriptResultCache(
+                resultCache.getMaxSize(),
+                resultCache.getMaxBodySize(),
+                resultCache.getRules(),
+                scriptResultRemoteStore.getIfAvailable()
+        );
+    }
+
+    @Bean(value = "asyncScriptExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Mvc_Handler, name = "async.enable", havingValue = "true")
+    public AsyncScriptExecutor asyncScriptExecutor() {
+        return new AsyncScriptExecutor(scriptMvcHandlerConfig.getAsync());
+    }
+
+    /**
+     * 限制脚本执行时间，异步执行超时时也用于取消脚本
+     */
+    @Bean(value = "engineInstanceWatchdog", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${" + Constant.Config_Mvc_Handler + ".execution-limit.enable:false} || ${" + Constant.Config_Mvc_Handler + ".async.enable:false}")
+    public EngineInstanceWatchdog engineInstanceWatchdog() {
+        return new EngineInstanceWatchdog();
+    }
+
+    @Bean("scriptHandlerInterceptor")
+    @ConditionalOnMissingBean
+    public ScriptHandlerInterceptor scriptHandlerInterceptor(
+            HttpRequestScriptHandler<Context, Value> httpRequestScriptHandler,
+            ScriptPathResolver scriptPathResolver,
+            ScriptExecutionStatistics scriptExecutionStatistics,
+            ObjectProvider<ScriptRouteIndex> scriptRouteIndex,
+            ObjectProvider<ScriptNegativeCache> scriptNegativeCache,
+            ObjectProvider<AsyncScriptExecutor> asyncScriptExecutor,
+            ObjectProvider<EngineInstanceWatchdog> engineInstanceWatchdog,
+            ObjectProvider<ScriptResultCache> scriptResultCache) {
+        ScriptMvcHandlerConfig.ExecutionLimitConfig executionLimit = scriptMvcHandlerConfig.getExecutionLimit();
+        return new ScriptHandlerInterceptor(
+                httpRequestScriptHandler,
+                scriptPathResolver,
+                scriptExecutionStatistics,
+                scriptRouteIndex.getIfAvailable(),
+                scriptNegativeCache.getIfAvailable(),
+                asyncScriptExecutor.getIfAvailable(),
+                engineInstanceWatchdog.getIfAvailable(),
+                executionLimit.isEnable() ? new RouteTimeouts(executionLimit.getTimeout(), executionLimit.getPrefixTimeouts(), executionLimit.getScriptTimeouts()) : null,
+                scriptResultCache.getIfAvailable()
+        );
+    }
+
+    @Bean("blueGreenPoolSwitcher")
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = Constant.Config_Root, name = "script-file-watcher.reload-mode", havingValue = "BlueGreen")
+    public BlueGreenPoolSwitcher blueGreenPoolSwitcher(
+            EngineInstancePoolFactory engineInstancePoolFactory,
+            EngineInstancePool<Context, Value> pool,
+            ScriptHandlerInterceptor scriptHandlerInterceptor,
+            ObjectProvider<ConversionService> conversionService,
+            ExceptionResolver exceptionResolver,
+            ScriptPathResolver scriptPathResolver,
+            ObjectProvider<ScriptConfig> scriptConfig,
+            ObjectProvider<EngineInstanceWarmUp> warmUp,
+            ObjectProvider<AdaptiveEnginePoolSizer> adaptiveEnginePoolSizer) {
+        ScriptConfig config = Objects.requireNonNull(scriptConfig.getIfAvailable());
+        Assert.isTrue(
+                pool instanceof SwitchableEngineInstancePool,
+                "蓝绿切换需要engineInstancePool是SwitchableEngineInstancePool(自定义的engineInstancePool Bean不支持蓝绿切换)"
+        );
+        BlueGreenPoolSwitcher switcher = new BlueGreenPoolSwitcher(
+                engineInstancePoolFactory,
+                newPool -> createHttpRequestScriptHandler(newPool, conversionService, exceptionResolver, scriptPathResolver),
+                scriptHandlerInterceptor,
+                (SwitchableEngineInstancePool) pool,
+                warmUp.getIfAvailable(),
+                config.getScriptFileWatcher().getDrainTimeout().toMillis()
+        );
+        adaptiveEnginePoolSizer.ifAvailable(sizer -> switcher.addSwapListener(newPool -> {
+            GenericObjectPool<?> objectPool = EngineInstancePools.getObjectPool(newPool);
+            if (objectPool != null) {
+                sizer.setObjectPool(objectPool);
+            }
+        }));
+        return switcher;
+    }
 }
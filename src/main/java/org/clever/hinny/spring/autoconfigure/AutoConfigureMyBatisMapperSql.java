@@ -11,13 +11,19 @@ import org.clever.hinny.spring.config.Constant;
 import org.clever.hinny.spring.config.FileSystemType;
 import org.clever.hinny.spring.config.MyBatisMapperConfig;
 import org.clever.hinny.spring.config.ScriptConfig;
+import org.clever.hinny.spring.mybatis.MapperErrors;
+import org.clever.hinny.spring.reload.ReloadCoordinator;
+import org.clever.hinny.spring.watch.FileWatcher;
+import org.clever.hinny.spring.watch.NativeFileWatcher;
+import org.clever.hinny.spring.watch.PollingFileWatcher;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.xml.sax.SAXParseException;
 
 import java.io.File;
 import java.util.Objects;
@@ -54,37 +60,36 @@ public class AutoConfigureMyBatisMapperSql {
         return myBatisMapperSql;
     }
 
-    @Bean("mapperFileWatcher")
-    @ConditionalOnMissingBean
+    @Bean(value = "mapperReloadCoordinator", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "mapperReloadCoordinator")
     @ConditionalOnProperty(prefix = Constant.Config_MyBatis_Mapper_Config, name = "enable-watcher", havingValue = "true", matchIfMissing = true)
-    public FileSystemWatcher mapperFileWatcher(MyBatisMapperSql mapperSql) {
+    public ReloadCoordinator mapperReloadCoordinator(MyBatisMapperSql mapperSql) {
         Assert.isTrue(mapperSql instanceof FileSystemMyBatisMapperSql, "当前MyBatisMapperSql类型[+" + mapperSql.getClass().getName() + "+]不支持监听文件变化");
         FileSystemMyBatisMapperSql fileSystemMyBatisMapperSql = (FileSystemMyBatisMapperSql) mapperSql;
-        FileSystemWatcher watcher = new FileSystemWatcher(
-                myBatisMapperConfig.getMapperPath(),
-                file -> {
-                    final String absPath = file.getAbsolutePath();
-                    try {
-                        fileSystemMyBatisMapperSql.reloadFile(absPath);
-                    } catch (Exception e) {
-                        String error = e.getMessage();
-                        if (e.getCause() instanceof SAXParseException) {
-                            SAXParseException saxParseException = (SAXParseException) e.getCause();
-                            error = String.format(
-                                    "#第%d行，第%d列存在错误: %s",
-                                    saxParseException.getLineNumber(),
-                                    saxParseException.getColumnNumber(),
-                                    saxParseException.getMessage()
-                            );
-                        }
-                        log.error("#重新加载Mapper.xml文件失败 | path={} | error={}", absPath, error);
-                    }
-                },
-                myBatisMapperConfig.getInclude(),
-                myBatisMapperConfig.getExclude(),
-                IOCase.SYSTEM,
-                myBatisMapperConfig.getInterval().toMillis()
-        );
+        return new ReloadCoordinator("mapper", myBatisMapperConfig.getBatch(), myBatisMapperConfig.getMapperPath(), files -> {
+            for (File file : files) {
+                // 删除的文件不需要重新加载
+                if (!file.isFile()) {
+                    continue;
+                }
+                final String absPath = file.getAbsolutePath();
+                try {
+                    fileSystemMyBatisMapperSql.reloadFile(absPath);
+                } catch (Exception e) {
+                    log.error("#重新加载Mapper.xml文件失败 | path={} | error={}", absPath, MapperErrors.format(e));
+                }
+            }
+        });
+    }
+
+    /**
+     * Polling模式(默认)的Mapper.xml文件监听，Bean类型与之前的版本相同(FileSystemWatcher)
+     */
+    @Bean(value = "mapperFileWatcher", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${" + Constant.Config_MyBatis_Mapper_Config + ".enable-watcher:true} && !'Native'.equalsIgnoreCase('${" + Constant.Config_MyBatis_Mapper_Config + ".watch-mode:Polling}')")
+    public FileSystemWatcher mapperFileWatcher(@Qualifier("mapperReloadCoordinator") ReloadCoordinator reloadCoordinator) {
+        final FileSystemWatcher watcher = newMapperPollingWatcher(reloadCoordinator);
         if (myBatisMapperConfig.isEnableWatcher()) {
             final String mapperAbsolutePath = new File(myBatisMapperConfig.getMapperPath()).getAbsolutePath();
             watcher.start();
@@ -92,4 +97,45 @@ public class AutoConfigureMyBatisMapperSql {
         }
         return watcher;
     }
+
+    /**
+     * Native模式的Mapper.xml文件监听(Bean类型是FileWatcher，当前操作系统不支持时降级为Polling)
+     */
+    @Bean(value = "mapperFileWatcher", destroyMethod = "stop")
+    @ConditionalOnMissingBean
+    @ConditionalOnExpression("${" + Constant.Config_MyBatis_Mapper_Config + ".enable-watcher:true} && 'Native'.equalsIgnoreCase('${" + Constant.Config_MyBatis_Mapper_Config + ".watch-mode:Polling}')")
+    public FileWatcher mapperNativeFileWatcher(@Qualifier("mapperReloadCoordinator") ReloadCoordinator reloadCoordinator) {
+        FileWatcher fileWatcher;
+        if (NativeFileWatcher.isSupported()) {
+            fileWatcher = new NativeFileWatcher(
+                    myBatisMapperConfig.getMapperPath(),
+                    ReloadCoordinator.withMarkerFile(myBatisMapperConfig.getInclude(), myBatisMapperConfig.getBatch()),
+                    myBatisMapperConfig.getExclude(),
+                    IOCase.SYSTEM,
+                    event -> reloadCoordinator.onFileChange(event.getFileOrDir()),
+                    myBatisMapperConfig.getDelayMillis().toMillis()
+            );
+        } else {
+            log.warn("#当前操作系统不支持原生文件事件，Mapper.xml文件监听降级为Polling模式");
+            FileSystemWatcher watcher = newMapperPollingWatcher(reloadCoordinator);
+            fileWatcher = new PollingFileWatcher(watcher::start, watcher::stop);
+        }
+        if (myBatisMapperConfig.isEnableWatcher()) {
+            final String mapperAbsolutePath = new File(myBatisMapperConfig.getMapperPath()).getAbsolutePath();
+            fileWatcher.start();
+            log.info("#已监听Mapper.xml文件，绝对路径: {}", mapperAbsolutePath);
+        }
+        return fileWatcher;
+    }
+
+    private FileSystemWatcher newMapperPollingWatcher(ReloadCoordinator reloadCoordinator) {
+        return new FileSystemWatcher(
+                myBatisMapperConfig.getMapperPath(),
+                reloadCoordinator::onFileChange,
+                ReloadCoordinator.withMarkerFile(myBatisMapperConfig.getInclude(), myBatisMapperConfig.getBatch()),
+                myBatisMapperConfig.getExclude(),
+                IOCase.SYSTEM,
+                myBatisMapperConfig.getInterval().toMillis()
+        );
+    }
 }
\ No newline at end of file
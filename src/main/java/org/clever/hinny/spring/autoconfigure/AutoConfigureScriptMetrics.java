@@ -0,0 +1,68 @@
+package org.clever.hinny.spring.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.spring.metrics.EnginePoolMetrics;
+import org.clever.hinny.spring.metrics.HinnyEndpoint;
+import org.clever.hinny.spring.mvc.ScriptExecutionStatistics;
+import org.clever.hinny.spring.pool.EngineInstancePools;
+import org.clever.hinny.spring.pool.EngineInstanceStatistics;
+import org.clever.hinny.spring.reload.BlueGreenPoolSwitcher;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 脚本引擎池Micrometer指标与Actuator Endpoint
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 17:35 <br/>
+ */
+@Configuration
+@AutoConfigureAfter({AutoConfigureEngineInstancePool.class, AutoConfigureMvcHandler.class})
+public class AutoConfigureScriptMetrics {
+
+    @Configuration
+    @ConditionalOnClass({MeterRegistry.class})
+    public static class EnginePoolMetricsConfiguration {
+        @Bean("enginePoolMetrics")
+        @ConditionalOnMissingBean
+        public EnginePoolMetrics enginePoolMetrics(
+                EngineInstancePool<Context, Value> pool,
+                ObjectProvider<BlueGreenPoolSwitcher> blueGreenPoolSwitcher,
+                EngineInstanceStatistics instanceStatistics,
+                ObjectProvider<ScriptExecutionStatistics> executionStatistics) {
+            final BlueGreenPoolSwitcher switcher = blueGreenPoolSwitcher.getIfAvailable();
+            return new EnginePoolMetrics(
+                    () -> EngineInstancePools.getObjectPool(switcher == null ? pool : switcher.getCurrentPool()),
+                    instanceStatistics,
+                    executionStatistics.getIfAvailable()
+            );
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass({Endpoint.class})
+    public static class HinnyEndpointConfiguration {
+        @Bean("hinnyEndpoint")
+        @ConditionalOnMissingBean
+        public HinnyEndpoint hinnyEndpoint(
+                EngineInstancePool<Context, Value> pool,
+                ObjectProvider<BlueGreenPoolSwitcher> blueGreenPoolSwitcher,
+                EngineInstanceStatistics instanceStatistics,
+                ObjectProvider<ScriptExecutionStatistics> executionStatistics) {
+            final BlueGreenPoolSwitcher switcher = blueGreenPoolSwitcher.getIfAvailable();
+            return new HinnyEndpoint(
+                    () -> switcher == null ? pool : switcher.getCurrentPool(),
+                    instanceStatistics,
+                    executionStatistics.getIfAvailable()
+            );
+        }
+    }
+}
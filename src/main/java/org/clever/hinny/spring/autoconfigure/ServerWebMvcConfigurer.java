@@ -1,6 +1,6 @@
 package org.clever.hinny.spring.autoconfigure;
 
-import org.clever.hinny.mvc.HttpRequestScriptHandler;
+import org.clever.hinny.spring.mvc.ScriptHandlerInterceptor;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.context.annotation.Configuration;
@@ -16,14 +16,14 @@ import java.util.Objects;
 @Configuration
 @AutoConfigureAfter({AutoConfigureMvcHandler.class})
 public class ServerWebMvcConfigurer implements WebMvcConfigurer {
-    private final HttpRequestScriptHandler<?, ?> httpRequestScriptHandler;
+    private final ScriptHandlerInterceptor scriptHandlerInterceptor;
 
-    public ServerWebMvcConfigurer(ObjectProvider<HttpRequestScriptHandler<?, ?>> httpRequestScriptHandler) {
-        this.httpRequestScriptHandler = Objects.requireNonNull(httpRequestScriptHandler.getIfAvailable());
+    public ServerWebMvcConfigurer(ObjectProvider<ScriptHandlerInterceptor> scriptHandlerInterceptor) {
+        this.scriptHandlerInterceptor = Objects.requireNonNull(scriptHandlerInterceptor.getIfAvailable());
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(httpRequestScriptHandler).addPathPatterns("/**").order(Integer.MAX_VALUE);
+        registry.addInterceptor(scriptHandlerInterceptor).addPathPatterns("/**").order(Integer.MAX_VALUE);
     }
 }
@@ -0,0 +1,18 @@
+package org.clever.hinny.spring.config;
+
+/**
+ * 异步执行脚本的线程池已满时的处理策略
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 19:40 <br/>
+ */
+public enum AsyncRejectPolicy {
+    /**
+     * 拒绝请求(响应503)
+     */
+    Reject,
+    /**
+     * 在Servlet线程中同步执行脚本
+     */
+    CallerRuns,
+}
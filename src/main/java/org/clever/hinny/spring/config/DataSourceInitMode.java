@@ -0,0 +1,24 @@
+package org.clever.hinny.spring.config;
+
+/**
+ * 数据源(连接池)初始化方式
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 11:50 <br/>
+ */
+public enum DataSourceInitMode {
+    /**
+     * 启动时依次创建连接池
+     */
+    Serial,
+    /**
+     * 启动时使用有限的线程并行创建连接池
+     */
+    Parallel,
+    /**
+     * 启动时不创建连接池，第一次获取数据库连接时才创建<br/>
+     * 注意: 数据源仍然在启动时注册到JdbcDatabase、MyBatisJdbcDatabase、MateDataManage，
+     * 如果这些对象在创建时就获取数据库连接(如读取数据库元数据)，连接池仍会在启动时创建
+     */
+    Lazy,
+}
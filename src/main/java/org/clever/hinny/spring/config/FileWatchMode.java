@@ -0,0 +1,18 @@
+package org.clever.hinny.spring.config;
+
+/**
+ * 文件监听模式
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:20 <br/>
+ */
+public enum FileWatchMode {
+    /**
+     * 基于操作系统文件事件(java.nio.file.WatchService，Linux下为inotify)，不支持时自动降级为Polling
+     */
+    Native,
+    /**
+     * 定时轮询扫描文件夹
+     */
+    Polling,
+}
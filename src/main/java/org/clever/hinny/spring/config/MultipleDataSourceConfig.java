@@ -5,8 +5,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
-import java.util.Collections;
-import java.util.Map;
+import java.time.Duration;
+import java.util.*;
 
 /**
  * 作者：lizw <br/>
@@ -34,4 +34,83 @@ public class MultipleDataSourceConfig {
      * 数据源集合(数据源名称 --> 数据源配置)
      */
     private Map<String, HikariConfig> jdbcMap = Collections.emptyMap();
+
+    /**
+     * 读写分离数据源集合(数据源名称 --> 读写分离配置)，主库和从库引用jdbcMap或已存在的数据源名称
+     */
+    private Map<String, RoutingConfig> routingMap = Collections.emptyMap();
+
+    /**
+     * 运行时删除数据源时等待使用中的连接归还的最长时间
+     */
+    private Duration drainTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 数据源初始化配置
+     */
+    @NestedConfigurationProperty
+    private InitConfig init = new InitConfig();
+
+    /**
+     * 脚本批量写入与流式查询配置
+     */
+    @NestedConfigurationProperty
+    private BulkConfig bulk = new BulkConfig();
+
+    @Data
+    public static class RoutingConfig {
+        /**
+         * 主库数据源名称(写操作和事务使用主库)
+         */
+        private String primary;
+        /**
+         * 从库数据源名称(非事务中的查询和只读事务使用从库)
+         */
+        private List<String> replicas = new ArrayList<>();
+        /**
+         * 从库负载均衡策略
+         */
+        private ReplicaBalanceStrategy strategy = ReplicaBalanceStrategy.LeastActive;
+        /**
+         * 从库获取连接失败后暂停使用的时间(之后自动恢复使用)
+         */
+        private Duration failbackInterval = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class InitConfig {
+        /**
+         * 连接池初始化方式(Lazy模式的限制参考 DataSourceInitMode.Lazy，启动日志会输出注册时已创建连接池的数据源)
+         */
+        private DataSourceInitMode mode = DataSourceInitMode.Serial;
+        /**
+         * 并行初始化(Parallel)时的最大线程数
+         */
+        private int parallelism = 4;
+    }
+
+    @Data
+    public static class BulkConfig {
+        /**
+         * 是否在脚本中注册批量写入与流式查询对象
+         */
+        private boolean enable = false;
+        /**
+         * 脚本中的全局变量名
+         */
+        private String scriptObjectName = "JdbcBulk";
+        /**
+         * 批量写入时每批的数据量(每批在单独的事务中提交)
+         */
+        private int batchSize = 500;
+        /**
+         * 流式查询时每次从数据库读取的数据量(JDBC fetchSize)
+         */
+        private int fetchSize = 1000;
+        /**
+         * 合并到所有数据源的驱动参数(已配置的参数不会被覆盖)<br />
+         * 如MySQL: rewriteBatchedStatements=true、useCursorFetch=true
+         */
+        private Map<String, String> driverProperties = new HashMap<>();
+    }
 }
\ No newline at end of file
@@ -5,7 +5,9 @@ import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -34,4 +36,144 @@ public class MultipleRedisConfig {
      * Redis数据源集合(数据源名称 --> 数据源配置)
      */
     private Map<String, RedisProperties> redisMap = Collections.emptyMap();
+
+    /**
+     * 数据源初始化配置
+     */
+    @NestedConfigurationProperty
+    private InitConfig init = new InitConfig();
+
+    /**
+     * 数据源健康检查配置
+     */
+    @NestedConfigurationProperty
+    private HealthConfig health = new HealthConfig();
+
+    /**
+     * 数据源默认的序列化配置
+     */
+    @NestedConfigurationProperty
+    private SerializerConfig globalSerializer = new SerializerConfig();
+
+    /**
+     * 数据源的序列化配置(数据源名称 --> 序列化配置)，没有配置的数据源使用globalSerializer
+     */
+    private Map<String, SerializerConfig> serializerMap = Collections.emptyMap();
+
+    /**
+     * 脚本中的redis批量操作配置
+     */
+    @NestedConfigurationProperty
+    private BatchConfig batch = new BatchConfig();
+
+    /**
+     * 脚本中的redis近端缓存配置
+     */
+    @NestedConfigurationProperty
+    private NearCacheConfig nearCache = new NearCacheConfig();
+
+    @Data
+    public static class InitConfig {
+        /**
+         * 数据源初始化方式
+         */
+        private DataSourceInitMode mode = DataSourceInitMode.Serial;
+        /**
+         * 并行初始化(Parallel)时的最大线程数
+         */
+        private int parallelism = 4;
+        /**
+         * 并行初始化(Parallel)时的最大等待时间，超时的数据源在后台继续初始化(默认数据源超时会启动失败)
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class HealthConfig {
+        /**
+         * 是否启用multiple-redis健康检查(需要spring-boot-actuator)
+         */
+        private boolean enable = true;
+        /**
+         * 不可用时健康检查返回DOWN的数据源(为空表示只有默认数据源)
+         */
+        private List<String> requiredNames = Collections.emptyList();
+        /**
+         * 每个数据源PING的最大等待时间
+         */
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class NearCacheConfig {
+        /**
+         * 是否启用redis近端缓存
+         */
+        private boolean enable = false;
+        /**
+         * 脚本中的全局变量名
+         */
+        private String scriptObjectName = "RedisNearCache";
+        /**
+         * 开启近端缓存的数据源名称(为空表示只有默认数据源)
+         */
+        private List<String> names = Collections.emptyList();
+        /**
+         * 每个数据源的最大缓存数量
+         */
+        private int maxSize = 10000;
+        /**
+         * 缓存过期时间(失效通知丢失时的兜底)
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+        /**
+         * 只缓存以此开头的Key(同时也是订阅的键空间通知范围)，开启近端缓存时必须配置；
+         * 不允许为空，因为订阅所有Key的键空间通知(__keyspace@*__:*)会收到redis中每一次写操作的通知
+         */
+        private String keyPrefix = "";
+        /**
+         * 启动时是否修改redis的notify-keyspace-events配置(需要CONFIG权限，否则需要在redis中手动配置)
+         */
+        private boolean configureNotifications = false;
+    }
+
+    @Data
+    public static class SerializerConfig {
+        /**
+         * 序列化格式
+         */
+        private RedisSerializerType type = RedisSerializerType.Json;
+        /**
+         * 是否压缩序列化后的数据
+         */
+        private boolean compress = false;
+        /**
+         * 序列化后的数据超过该大小(字节)时才压缩
+         */
+        private int compressThreshold = 4096;
+    }
+
+    @Data
+    public static class BatchConfig {
+        /**
+         * 是否在脚本中注册redis批量操作对象
+         */
+        private boolean enable = false;
+        /**
+         * 脚本中的全局变量名
+         */
+        private String scriptObjectName = "RedisBatch";
+        /**
+         * 合并并发读取的时间窗口(只有存在正在读取的请求时才等待，没有其他读取时立即读取)
+         */
+        private Duration autoBatchWindow = Duration.ofMillis(2);
+        /**
+         * 单次合并读取的最大Key数量
+         */
+        private int maxBatchSize = 128;
+        /**
+         * 合并读取的等待时间
+         */
+        private Duration readTimeout = Duration.ofSeconds(3);
+    }
 }
@@ -2,6 +2,7 @@ package org.clever.hinny.spring.config;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
 import java.time.Duration;
@@ -24,9 +25,22 @@ public class MyBatisMapperConfig implements Serializable {
      */
     private boolean enableWatcher = true;
     /**
-     * 文件检查时间间隔(默认3秒)
+     * 文件监听模式(默认Polling；Native模式的Bean类型是FileWatcher而不是FileSystemWatcher，在不支持的平台上自动降级为Polling)
+     */
+    private FileWatchMode watchMode = FileWatchMode.Polling;
+    /**
+     * 文件检查时间间隔(默认3秒，只对Polling模式有效)
      */
     private Duration interval = Duration.ofSeconds(3);
+    /**
+     * 文件变化后等待多久没有新的变化才重新加载mapper.xml(只对Native模式有效)
+     */
+    private Duration delayMillis = Duration.ofMillis(300);
+    /**
+     * 文件变化批量重新加载配置
+     */
+    @NestedConfigurationProperty
+    private ReloadBatchConfig batch = new ReloadBatchConfig();
     /**
      * 监听文件列表(白名单)<br />
      * 支持通配符(“?匹配一个字符”、“*匹配0个或多个字符”)
@@ -0,0 +1,22 @@
+package org.clever.hinny.spring.config;
+
+/**
+ * multiple-redis数据源的序列化格式(修改格式后已存在的缓存数据无法读取，需要清空或者等待过期)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 17:40 <br/>
+ */
+public enum RedisSerializerType {
+    /**
+     * JSON(默认，可读性好)
+     */
+    Json,
+    /**
+     * Smile二进制JSON(需要依赖 com.fasterxml.jackson.dataformat:jackson-dataformat-smile)
+     */
+    Smile,
+    /**
+     * CBOR二进制JSON(需要依赖 com.fasterxml.jackson.dataformat:jackson-dataformat-cbor)
+     */
+    Cbor,
+}
@@ -0,0 +1,33 @@
+package org.clever.hinny.spring.config;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Duration;
+
+/**
+ * 文件变化批量重新加载配置
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 22:10 <br/>
+ */
+@Data
+public class ReloadBatchConfig implements Serializable {
+    /**
+     * 是否合并文件变化批量重新加载(false: 每个文件变化都立即重新加载)
+     */
+    private boolean enable = true;
+    /**
+     * 静默时间，在这段时间内没有新的文件变化才执行重新加载
+     */
+    private Duration quietPeriod = Duration.ofMillis(500);
+    /**
+     * 最大等待时间，文件持续变化时最多等待这么久就执行一次重新加载
+     */
+    private Duration maxDelay = Duration.ofSeconds(10);
+    /**
+     * 重新加载标记文件(相对于监听的根路径，如: ".reload")<br />
+     * 配置后文件变化只会累积，直到标记文件被新增或修改时才执行一次重新加载(适用于rsync等部署工具)
+     */
+    private String markerFile;
+}
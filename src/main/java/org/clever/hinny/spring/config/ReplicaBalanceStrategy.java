@@ -0,0 +1,18 @@
+package org.clever.hinny.spring.config;
+
+/**
+ * 读写分离时从库(只读库)的负载均衡策略
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 13:40 <br/>
+ */
+public enum ReplicaBalanceStrategy {
+    /**
+     * 选择使用中的连接数最少的从库
+     */
+    LeastActive,
+    /**
+     * 选择获取连接平均耗时最短的从库
+     */
+    Latency,
+}
@@ -37,13 +37,30 @@ public class ScriptConfig implements Serializable {
          */
         private boolean enableWatcher = true;
         /**
-         * 文件检查时间间隔(默认3秒)
+         * 文件监听模式(默认Polling；Native模式的Bean类型是FileWatcher而不是FileSystemWatcher，在不支持的平台上自动降级为Polling)
+         */
+        private FileWatchMode watchMode = FileWatchMode.Polling;
+        /**
+         * 文件检查时间间隔(默认3秒，只对Polling模式有效)
          */
         private Duration interval = Duration.ofSeconds(3);
         /**
          * 文件变化时刷新脚本引擎的频率
          */
         private Duration delayMillis = Duration.ofMillis(300);
+        /**
+         * 文件变化时脚本引擎的刷新模式
+         */
+        private ScriptReloadMode reloadMode = ScriptReloadMode.ClearPool;
+        /**
+         * 蓝绿切换时旧的引擎池等待使用完成的最长时间，超时强制关闭(只对BlueGreen模式有效)
+         */
+        private Duration drainTimeout = Duration.ofSeconds(60);
+        /**
+         * 文件变化批量重新加载配置
+         */
+        @NestedConfigurationProperty
+        private ReloadBatchConfig batch = new ReloadBatchConfig();
         /**
          * 监听文件列表(白名单)<br />
          * 支持通配符(“?匹配一个字符”、“*匹配0个或多个字符”)
@@ -4,8 +4,12 @@ import lombok.Data;
 import org.apache.commons.pool2.impl.BaseObjectPoolConfig;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Script引擎池配置
@@ -116,4 +120,81 @@ public class ScriptEnginePoolConfig implements Serializable {
      * 使用base + jmxNamePrefix + idx 来生成ObjectName
      */
     private String jmxNameBase = BaseObjectPoolConfig.DEFAULT_JMX_NAME_BASE;
+
+    // --------------------------------------------------------------------------------------------------------------------------------------- 自适应
+
+    /**
+     * 引擎池自适应大小配置
+     */
+    @NestedConfigurationProperty
+    private AdaptiveConfig adaptive = new AdaptiveConfig();
+
+    // --------------------------------------------------------------------------------------------------------------------------------------- 预热
+
+    /**
+     * 引擎实例预热配置
+     */
+    @NestedConfigurationProperty
+    private WarmUpConfig warmUp = new WarmUpConfig();
+
+    @Data
+    public static class WarmUpConfig implements Serializable {
+        /**
+         * 是否启用引擎实例预热
+         */
+        private boolean enable = false;
+        /**
+         * 启动时(以及脚本变化清空引擎池后)预先创建的引擎实例数量，小于等于0时使用minIdle(maxIdle大于等于0时不会超过maxIdle)
+         */
+        private int instanceCount = 0;
+        /**
+         * 并行创建引擎实例的线程数
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        /**
+         * 预热超时时间
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+        /**
+         * 引擎实例创建后需要预先加载的脚本(模块路径)，如: “/test/mvc/demo.js”<br/>
+         * 只调用require加载脚本(执行模块顶层代码)，不会调用脚本导出的函数
+         */
+        private List<String> scripts = new ArrayList<>();
+    }
+
+    @Data
+    public static class AdaptiveConfig implements Serializable {
+        /**
+         * 是否启用引擎池自适应大小(根据借用等待时间、借用频率、GC后的堆内存使用率动态调整maxTotal/maxIdle)
+         */
+        private boolean enable = false;
+        /**
+         * 调整引擎池大小的时间间隔
+         */
+        private Duration interval = Duration.ofSeconds(10);
+        /**
+         * maxTotal的下限
+         */
+        private int minTotal = 1;
+        /**
+         * maxTotal的上限，小于等于0时使用maxTotal(两者都小于等于0时启动失败)
+         */
+        private int maxTotal = 0;
+        /**
+         * 每次调整的实例数量
+         */
+        private int step = 1;
+        /**
+         * 期望的平均借用等待时间(调整周期内)，引擎池饱和并且超过此值时扩大引擎池
+         */
+        private Duration targetBorrowWait = Duration.ofMillis(10);
+        /**
+         * 连续多少个调整周期内使用的实例数都小于maxTotal时才缩小引擎池
+         */
+        private int shrinkAfterIntervals = 6;
+        /**
+         * 堆内存使用率阈值(0~1，最近一次GC后的老年代使用率)，超过此值时缩小引擎池
+         */
+        private double heapUsageThreshold = 0.85;
+    }
 }
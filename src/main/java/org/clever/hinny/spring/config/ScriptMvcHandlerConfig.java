@@ -6,10 +6,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.time.Duration;
+import java.util.*;
 
 /**
  * mvc配置
@@ -37,6 +35,36 @@ public class ScriptMvcHandlerConfig implements Serializable {
         add(".action'");
     }};
 
+    /**
+     * 是否启用脚本路由索引<br />
+     * 启动时扫描所有脚本文件构建路由索引，不存在对应脚本文件的请求直接跳过Script Mvc Handler
+     */
+    private boolean enableRouteIndex = false;
+
+    /**
+     * 不存在脚本的请求缓存配置
+     */
+    @NestedConfigurationProperty
+    private NegativeCacheConfig negativeCache = new NegativeCacheConfig();
+
+    /**
+     * 异步执行脚本配置
+     */
+    @NestedConfigurationProperty
+    private AsyncConfig async = new AsyncConfig();
+
+    /**
+     * 脚本执行时间限制配置
+     */
+    @NestedConfigurationProperty
+    private ExecutionLimitConfig executionLimit = new ExecutionLimitConfig();
+
+    /**
+     * 脚本执行结果缓存配置
+     */
+    @NestedConfigurationProperty
+    private ResultCacheConfig resultCache = new ResultCacheConfig();
+
     /**
      * 跨域配置
      */
@@ -62,4 +90,124 @@ public class ScriptMvcHandlerConfig implements Serializable {
             this.scriptPath = scriptPath;
         }
     }
+
+    @Data
+    public static class NegativeCacheConfig implements Serializable {
+        /**
+         * 是否缓存不存在脚本的请求(缓存期间直接跳过Script Mvc Handler)
+         */
+        private boolean enable = false;
+        /**
+         * 最大缓存数量(超过时先淘汰过期的请求，再近似淘汰部分请求)
+         */
+        private int maxSize = 10000;
+        /**
+         * 缓存过期时间
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class AsyncConfig implements Serializable {
+        /**
+         * 是否在独立的线程池中异步执行脚本(使用Servlet 3异步请求)
+         */
+        private boolean enable = false;
+        /**
+         * 线程池核心线程数
+         */
+        private int corePoolSize = 8;
+        /**
+         * 线程池最大线程数
+         */
+        private int maxPoolSize = 32;
+        /**
+         * 线程池队列大小
+         */
+        private int queueCapacity = 256;
+        /**
+         * 线程空闲时间
+         */
+        private Duration keepAlive = Duration.ofSeconds(60);
+        /**
+         * 线程池已满时的处理策略
+         */
+        private AsyncRejectPolicy rejectPolicy = AsyncRejectPolicy.Reject;
+        /**
+         * 默认的请求超时时间
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+        /**
+         * 请求路径前缀 --> 请求超时时间(使用最长匹配的前缀)
+         */
+        private Map<String, Duration> routeTimeouts = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class ExecutionLimitConfig implements Serializable {
+        /**
+         * 是否限制脚本执行时间(超时后取消脚本执行并销毁引擎实例)
+         */
+        private boolean enable = false;
+        /**
+         * 默认的脚本执行时间限制，小于等于0表示不限制
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+        /**
+         * 请求路径前缀 --> 脚本执行时间限制(使用最长匹配的前缀)
+         */
+        private Map<String, Duration> prefixTimeouts = new LinkedHashMap<>();
+        /**
+         * 脚本路径 --> 脚本执行时间限制(优先级高于prefixTimeouts)，如: “/test/mvc/demo”
+         */
+        private Map<String, Duration> scriptTimeouts = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class ResultCacheConfig implements Serializable {
+        /**
+         * 是否缓存脚本执行结果(只缓存匹配rules的GET请求，带有Authorization请求头或者会话的请求不缓存)
+         */
+        private boolean enable = false;
+        /**
+         * 本地缓存最大数量(超过时先淘汰过期的结果，再近似淘汰部分结果)
+         */
+        private int maxSize = 10000;
+        /**
+         * 最大缓存的响应内容大小(字节)
+         */
+        private int maxBodySize = 256 * 1024;
+        /**
+         * 二级缓存使用的redis数据源名称(multiple-redis中的名称)，为空时只使用本地缓存
+         */
+        private String redisName;
+        /**
+         * 二级缓存redis key前缀
+         */
+        private String redisKeyPrefix = "hinny:script-result:";
+        /**
+         * 缓存失效通知的redis channel
+         */
+        private String invalidateChannel = "hinny:script-result:invalidate";
+        /**
+         * 缓存规则(使用最长匹配的请求路径前缀)
+         */
+        private List<ResultCacheRule> rules = new ArrayList<>();
+    }
+
+    @Data
+    public static class ResultCacheRule implements Serializable {
+        /**
+         * 请求路径前缀
+         */
+        private String requestPath;
+        /**
+         * 缓存时间，小于等于0表示不缓存
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+        /**
+         * 参与生成缓存Key的请求参数(其他请求参数不影响缓存)
+         */
+        private List<String> keyParams = new ArrayList<>();
+    }
 }
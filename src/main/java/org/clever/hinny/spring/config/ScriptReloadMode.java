@@ -0,0 +1,22 @@
+package org.clever.hinny.spring.config;
+
+/**
+ * 脚本文件变化时脚本引擎的刷新模式
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 10:12 <br/>
+ */
+public enum ScriptReloadMode {
+    /**
+     * 清空整个脚本引擎池(所有引擎实例都会重新创建)
+     */
+    ClearPool,
+    /**
+     * 增量刷新，只清除变化文件以及依赖它的模块缓存(未受影响的引擎实例保持不变)
+     */
+    Incremental,
+    /**
+     * 蓝绿切换，在后台创建并预热新的引擎池，切换后旧的引擎池等待使用中的引擎实例归还后关闭
+     */
+    BlueGreen,
+}
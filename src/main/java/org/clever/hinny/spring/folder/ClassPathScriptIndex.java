@@ -0,0 +1,106 @@
+package org.clever.hinny.spring.folder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Jar包(classpath)模式下的脚本文件索引
+ * <p>
+ * 启动时只扫描 scriptPath 下的文件路径(不读取文件内容)，之后所有的查找都是内存中的Hash查找(不可变，Jar包中的文件不会变化)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:20 <br/>
+ */
+@Slf4j
+public class ClassPathScriptIndex {
+    /**
+     * 脚本根路径(classpath路径，不以“/”开始和结束)
+     */
+    private final String basePath;
+    /**
+     * 脚本路径(以“/”开始，相对于脚本根路径)
+     */
+    private final Set<String> paths;
+
+    public ClassPathScriptIndex(String scriptPath) {
+        this.basePath = normalizeBasePath(scriptPath);
+        this.paths = Collections.unmodifiableSet(load());
+    }
+
+    /**
+     * classpath文件模式(只匹配脚本根路径下的文件)
+     */
+    public static String getLocationPattern(String scriptPath) {
+        String basePath = normalizeBasePath(scriptPath);
+        return StringUtils.isBlank(basePath) ? "classpath:**/*.*" : "classpath:" + basePath + "/**/*.*";
+    }
+
+    public String getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * 所有的脚本路径
+     */
+    public Set<String> getPaths() {
+        return paths;
+    }
+
+    public boolean exists(String path) {
+        return paths.contains(normalizePath(path));
+    }
+
+    private Set<String> load() {
+        final long startTime = System.currentTimeMillis();
+        final String prefix = StringUtils.isBlank(basePath) ? "" : basePath + "/";
+        final PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        final Set<String> set = new HashSet<>();
+        try {
+            List<String> roots = new ArrayList<>();
+            for (Resource root : resolver.getResources("classpath*:" + prefix)) {
+                roots.add(root.getURL().toExternalForm());
+            }
+            for (Resource resource : resolver.getResources("classpath*:" + prefix + "**/*.*")) {
+                if (!resource.isReadable()) {
+                    continue;
+                }
+                String path = getRelativePath(roots, resource.getURL().toExternalForm());
+                if (path != null) {
+                    set.add(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("读取classpath脚本文件失败: classpath:" + basePath, e);
+        }
+        log.info("#classpath脚本文件索引完成 | 文件数量: {} | 耗时: {}ms", set.size(), System.currentTimeMillis() - startTime);
+        return set;
+    }
+
+    private String getRelativePath(List<String> roots, String url) {
+        for (String root : roots) {
+            if (url.startsWith(root)) {
+                return normalizePath(url.substring(root.length()));
+            }
+        }
+        int start = Math.max(url.lastIndexOf("!/"), 0);
+        if (StringUtils.isBlank(basePath)) {
+            return start > 0 ? normalizePath(url.substring(start + 2)) : null;
+        }
+        int index = url.indexOf("/" + basePath + "/", start);
+        return index < 0 ? null : normalizePath(url.substring(index + basePath.length() + 2));
+    }
+
+    private static String normalizeBasePath(String scriptPath) {
+        return StringUtils.strip(StringUtils.replace(StringUtils.removeStart(StringUtils.trimToEmpty(scriptPath), "classpath:"), "\\", "/"), "/");
+    }
+
+    private static String normalizePath(String path) {
+        path = StringUtils.replace(path, "\\", "/");
+        return path.startsWith("/") ? path : "/" + path;
+    }
+}
@@ -0,0 +1,85 @@
+package org.clever.hinny.spring.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.actuate.endpoint.annotation.*;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 运行时管理数据源Endpoint(/actuator/hinnyjdbc)
+ * <pre>
+ * GET    /actuator/hinnyjdbc          所有数据源状态
+ * GET    /actuator/hinnyjdbc/{name}   单个数据源状态
+ * POST   /actuator/hinnyjdbc/{name}   数据源不存在时新增(需要jdbcUrl)，存在时调整连接池大小
+ * DELETE /actuator/hinnyjdbc/{name}   等待连接归还后删除数据源
+ * </pre>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 13:05 <br/>
+ */
+@Endpoint(id = "hinnyjdbc")
+public class DataSourceEndpoint {
+    private final DynamicDataSourceManager dataSourceManager;
+
+    public DataSourceEndpoint(DynamicDataSourceManager dataSourceManager) {
+        this.dataSourceManager = dataSourceManager;
+    }
+
+    @ReadOperation
+    public Map<String, Object> dataSources() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("defaultName", dataSourceManager.getDefaultName());
+        Map<String, Object> dataSources = new LinkedHashMap<>();
+        for (String name : dataSourceManager.getNames()) {
+            dataSources.put(name, dataSourceManager.getStatus(name));
+        }
+        result.put("dataSources", dataSources);
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> dataSource(@Selector String name) {
+        return dataSourceManager.getStatus(name);
+    }
+
+    @WriteOperation
+    public Map<String, Object> addOrResize(
+            @Selector String name,
+            @Nullable String jdbcUrl,
+            @Nullable String username,
+            @Nullable String password,
+            @Nullable String driverClassName,
+            @Nullable Integer maximumPoolSize,
+            @Nullable Integer minimumIdle) {
+        if (dataSourceManager.getDataSource(name) != null) {
+            dataSourceManager.resize(name, maximumPoolSize, minimumIdle);
+            return dataSourceManager.getStatus(name);
+        }
+        if (StringUtils.isBlank(jdbcUrl)) {
+            throw new IllegalArgumentException("新增数据源时jdbcUrl不能是空");
+        }
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setUsername(username);
+        hikariConfig.setPassword(password);
+        if (StringUtils.isNotBlank(driverClassName)) {
+            hikariConfig.setDriverClassName(driverClassName);
+        }
+        if (maximumPoolSize != null) {
+            hikariConfig.setMaximumPoolSize(maximumPoolSize);
+        }
+        if (minimumIdle != null) {
+            hikariConfig.setMinimumIdle(minimumIdle);
+        }
+        dataSourceManager.add(name, hikariConfig);
+        return dataSourceManager.getStatus(name);
+    }
+
+    @DeleteOperation
+    public boolean remove(@Selector String name) {
+        return dataSourceManager.remove(name);
+    }
+}
@@ -0,0 +1,340 @@
+package org.clever.hinny.spring.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.clever.hinny.data.jdbc.JdbcDataSource;
+import org.clever.hinny.data.jdbc.MyBatisJdbcDataSource;
+import org.clever.hinny.data.jdbc.mybatis.MyBatisMapperSql;
+import org.clever.hinny.graal.data.jdbc.JdbcDatabase;
+import org.clever.hinny.graal.data.jdbc.MyBatisJdbcDatabase;
+import org.clever.hinny.graal.meta.data.MateDataManage;
+import org.clever.hinny.spring.utils.MergeDataSourceConfig;
+
+import javax.sql.DataSource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 运行时管理数据源(新增、等待连接归还后删除、调整连接池大小)
+ * <p>
+ * 1. 数据源同时注册到 JdbcDatabase、MyBatisJdbcDatabase、MateDataManage、JdbcBulkOperations，任意一处失败时回滚已注册的部分<br/>
+ * 2. 删除数据源时先取消注册(新的请求无法再获取该数据源)，再等待使用中的连接归还后关闭连接池(最多等待drainTimeout)；
+ * 读写分离数据源使用的主库和从库不能删除<br/>
+ * 3. 调整连接池大小直接修改运行中的Hikari连接池，不需要重新创建<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 12:30 <br/>
+ */
+@Slf4j
+public class DynamicDataSourceManager {
+    /**
+     * 检查连接是否已全部归还的时间间隔
+     */
+    private static final long Drain_Check_Interval = 100;
+
+    private final HikariConfig globalConfig;
+    private final Map<String, String> driverProperties;
+    private final HikariDataSourceInitializer initializer;
+    /**
+     * 可以为null
+     */
+    private final MyBatisMapperSql mybatisMapperSql;
+    /**
+     * 可以为null
+     */
+    private final JdbcBulkOperations jdbcBulkOperations;
+    private final boolean registerMateDataManage;
+    private final long drainTimeoutMillis;
+    /**
+     * 数据源名称 --> 数据源
+     */
+    private final Map<String, DataSource> dataSourceMap = new ConcurrentHashMap<>();
+    private volatile String defaultName;
+
+    /**
+     * @param globalConfig           数据源全局配置(新增数据源时合并)
+     * @param driverProperties       合并到新增数据源的驱动参数
+     * @param initializer            创建连接池
+     * @param mybatisMapperSql       可以为null(为null时不注册到MyBatisJdbcDatabase)
+     * @param jdbcBulkOperations     可以为null
+     * @param registerMateDataManage 是否注册到MateDataManage
+     * @param drainTimeoutMillis     删除数据源时等待连接归还的最长时间
+     */
+    public DynamicDataSourceManager(
+            HikariConfig globalConfig,
+            Map<String, String> driverProperties,
+            HikariDataSourceInitializer initializer,
+            MyBatisMapperSql mybatisMapperSql,
+            JdbcBulkOperations jdbcBulkOperations,
+            boolean registerMateDataManage,
+            long drainTimeoutMillis) {
+        this.globalConfig = globalConfig;
+        this.driverProperties = driverProperties;
+        this.initializer = initializer;
+        this.mybatisMapperSql = mybatisMapperSql;
+        this.jdbcBulkOperations = jdbcBulkOperations;
+        this.registerMateDataManage = registerMateDataManage;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    /**
+     * 注册已创建的数据源
+     */
+    public synchronized void register(String name, DataSource dataSource) {
+        if (dataSourceMap.containsKey(name)) {
+            throw new IllegalArgumentException("JdbcDataSource 名称重复: " + name);
+        }
+        final JdbcDataSource jdbcDataSource = new JdbcDataSource(dataSource);
+        final List<Runnable> rollback = new ArrayList<>(4);
+        try {
+            JdbcDatabase.Instance.add(name, jdbcDataSource);
+            rollback.add(() -> JdbcDatabase.Instance.del(name));
+            log.info("初始化 JdbcDataSource: {}", name);
+            if (mybatisMapperSql != null) {
+                MyBatisJdbcDatabase.Instance.add(name, new MyBatisJdbcDataSource(jdbcDataSource, mybatisMapperSql));
+                rollback.add(() -> MyBatisJdbcDatabase.Instance.del(name));
+                log.info("初始化 MyBatisJdbcDataSource: {}", name);
+            }
+            if (registerMateDataManage) {
+                MateDataManage.Instance.add(name, dataSource);
+                rollback.add(() -> MateDataManage.Instance.del(name));
+                log.info("初始化 MateDataManage DataSource: {}", name);
+            }
+            if (jdbcBulkOperations != null) {
+                jdbcBulkOperations.add(name, dataSource);
+            }
+        } catch (RuntimeException e) {
+            for (Runnable runnable : rollback) {
+                try {
+                    runnable.run();
+                } catch (Exception ignored) {
+                }
+            }
+            throw e;
+        }
+        dataSourceMap.put(name, dataSource);
+    }
+
+    /**
+     * 设置默认数据源
+     */
+    public synchronized void setDefault(String defaultName) {
+        JdbcDatabase.Instance.setDefault(defaultName);
+        log.info("默认的 JdbcDataSource: {}", defaultName);
+        if (mybatisMapperSql != null) {
+            MyBatisJdbcDatabase.Instance.setDefault(defaultName);
+            log.info("默认的 MyBatisJdbcDataSource: {}", defaultName);
+        }
+        if (registerMateDataManage) {
+            MateDataManage.Instance.setDefault(defaultName);
+            log.info("默认的 MateDataManage DataSource: {}", defaultName);
+        }
+        if (jdbcBulkOperations != null) {
+            jdbcBulkOperations.setDefault(defaultName);
+        }
+        this.defaultName = defaultName;
+    }
+
+    /**
+     * 新增数据源(合并全局配置后创建连接池并注册)
+     */
+    public HikariDataSource add(String name, HikariConfig hikariConfig) {
+        if (StringUtils.isBlank(name)) {
+            throw new IllegalArgumentException("数据源名称不能是空");
+        }
+        if (dataSourceMap.containsKey(name)) {
+            throw new IllegalArgumentException("JdbcDataSource 名称重复: " + name);
+        }
+        hikariConfig = MergeDataSourceConfig.mergeConfig(globalConfig, hikariConfig);
+        MergeDataSourceConfig.mergeDataSourceProperties(hikariConfig, driverProperties);
+        if (StringUtils.isBlank(hikariConfig.getPoolName())) {
+            hikariConfig.setPoolName(name);
+        }
+        // 在锁外创建连接池(连接数据库可能很慢)
+        final HikariDataSource hikariDataSource = initializer.create(hikariConfig);
+        try {
+            register(name, hikariDataSource);
+        } catch (RuntimeException e) {
+            hikariDataSource.close();
+            throw e;
+        }
+        log.info("#新增数据源: {}", name);
+        return hikariDataSource;
+    }
+
+    /**
+     * 删除数据源(取消注册后等待使用中的连接归还，再关闭连接池)
+     *
+     * @return 数据源不存在返回false
+     */
+    public boolean remove(String name) {
+        final DataSource dataSource;
+        synchronized (this) {
+            if (Objects.equals(name, defaultName)) {
+                throw new IllegalArgumentException("不能删除默认数据源: " + name);
+            }
+            dataSource = dataSourceMap.get(name);
+            if (dataSource == null) {
+                return false;
+            }
+            final List<String> routingNames = new ArrayList<>();
+            dataSourceMap.forEach((routingName, routing) -> {
+                if (routing instanceof ReadWriteRoutingDataSource && ((ReadWriteRoutingDataSource) routing).references(dataSource)) {
+                    routingNames.add(routingName);
+                }
+            });
+            if (!routingNames.isEmpty()) {
+                throw new IllegalArgumentException("数据源是读写分离数据源的主库或从库，不能删除: " + name + " | 读写分离数据源: " + routingNames);
+            }
+            dataSourceMap.remove(name);
+            if (jdbcBulkOperations != null) {
+                jdbcBulkOperations.remove(name);
+            }
+            if (registerMateDataManage) {
+                MateDataManage.Instance.del(name);
+            }
+            if (mybatisMapperSql != null) {
+                MyBatisJdbcDatabase.Instance.del(name);
+            }
+            JdbcDatabase.Instance.del(name);
+        }
+        if (dataSource instanceof HikariDataSource) {
+            drainAndClose(name, (HikariDataSource) dataSource);
+        }
+        log.info("#删除数据源: {}", name);
+        return true;
+    }
+
+    /**
+     * 调整连接池大小(缩小时不会主动关闭连接，多余的连接在空闲超时(idleTimeout)或者达到最大存活时间(maxLifetime)后关闭)
+     *
+     * @param maximumPoolSize 最大连接数(为null时不修改)
+     * @param minimumIdle     最小空闲连接数(为null时不修改)
+     */
+    public void resize(String name, Integer maximumPoolSize, Integer minimumIdle) {
+        final HikariDataSource hikariDataSource = getHikariDataSource(name);
+        final HikariConfigMXBean configMXBean = hikariDataSource.getHikariConfigMXBean();
+        if (maximumPoolSize != null && maximumPoolSize < 1) {
+            throw new IllegalArgumentException("maximumPoolSize必须大于0: " + maximumPoolSize);
+        }
+        if (minimumIdle != null && minimumIdle < 0) {
+            throw new IllegalArgumentException("minimumIdle不能小于0: " + minimumIdle);
+        }
+        final int newMaximumPoolSize = maximumPoolSize == null ? configMXBean.getMaximumPoolSize() : maximumPoolSize;
+        final int newMinimumIdle = minimumIdle == null ? configMXBean.getMinimumIdle() : minimumIdle;
+        if (newMinimumIdle > newMaximumPoolSize) {
+            throw new IllegalArgumentException("minimumIdle不能大于maximumPoolSize: minimumIdle=" + newMinimumIdle + " | maximumPoolSize=" + newMaximumPoolSize);
+        }
+        // 先调大最大连接数再调最小空闲连接数，避免minimumIdle大于maximumPoolSize
+        if (newMaximumPoolSize > configMXBean.getMaximumPoolSize()) {
+            configMXBean.setMaximumPoolSize(newMaximumPoolSize);
+        }
+        if (minimumIdle != null) {
+            configMXBean.setMinimumIdle(newMinimumIdle);
+        }
+        if (newMaximumPoolSize < configMXBean.getMaximumPoolSize()) {
+            configMXBean.setMaximumPoolSize(newMaximumPoolSize);
+        }
+        log.info(
+                "#调整连接池大小: {} | maximumPoolSize={} | minimumIdle={}",
+                name, configMXBean.getMaximumPoolSize(), configMXBean.getMinimumIdle()
+        );
+    }
+
+    /**
+     * 所有数据源名称
+     */
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(dataSourceMap.keySet()));
+    }
+
+    public String getDefaultName() {
+        return defaultName;
+    }
+
+    public DataSource getDataSource(String name) {
+        return dataSourceMap.get(name);
+    }
+
+    /**
+     * 数据源状态
+     *
+     * @return 数据源不存在返回null
+     */
+    public Map<String, Object> getStatus(String name) {
+        final DataSource dataSource = dataSourceMap.get(name);
+        if (dataSource == null) {
+            return null;
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", name);
+        status.put("default", Objects.equals(name, defaultName));
+        status.put("type", dataSource.getClass().getName());
+        if (!(dataSource instanceof HikariDataSource)) {
+            return status;
+        }
+        HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+        status.put("jdbcUrl", hikariDataSource.getJdbcUrl());
+        status.put("maximumPoolSize", hikariDataSource.getMaximumPoolSize());
+        status.put("minimumIdle", hikariDataSource.getMinimumIdle());
+        HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
+        // 延迟初始化的连接池在第一次获取连接前为null
+        status.put("started", poolMXBean != null);
+        if (poolMXBean != null) {
+            status.put("activeConnections", poolMXBean.getActiveConnections());
+            status.put("idleConnections", poolMXBean.getIdleConnections());
+            status.put("totalConnections", poolMXBean.getTotalConnections());
+            status.put("threadsAwaitingConnection", poolMXBean.getThreadsAwaitingConnection());
+        }
+        return status;
+    }
+
+    /**
+     * 关闭所有连接池(应用停止时调用)
+     */
+    public void closeAll() {
+        dataSourceMap.forEach((name, dataSource) -> {
+            if (dataSource instanceof HikariDataSource) {
+                HikariDataSource tmp = (HikariDataSource) dataSource;
+                tmp.close();
+            }
+            // 其他类型的连接池也要关闭连接池
+        });
+    }
+
+    private HikariDataSource getHikariDataSource(String name) {
+        final DataSource dataSource = dataSourceMap.get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("数据源不存在: " + name);
+        }
+        if (!(dataSource instanceof HikariDataSource)) {
+            throw new IllegalArgumentException("只支持HikariDataSource: " + name);
+        }
+        return (HikariDataSource) dataSource;
+    }
+
+    private void drainAndClose(String name, HikariDataSource hikariDataSource) {
+        final HikariPoolMXBean poolMXBean = hikariDataSource.getHikariPoolMXBean();
+        if (poolMXBean != null) {
+            // 空闲连接立即关闭，使用中的连接归还时关闭
+            poolMXBean.softEvictConnections();
+            final long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+            try {
+                while (poolMXBean.getActiveConnections() > 0) {
+                    if (System.currentTimeMillis() >= deadline) {
+                        log.warn("#等待数据源连接归还超时，强制关闭 | 数据源: {} | 使用中的连接数: {}", name, poolMXBean.getActiveConnections());
+                        break;
+                    }
+                    Thread.sleep(Drain_Check_Interval);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        hikariDataSource.close();
+    }
+}
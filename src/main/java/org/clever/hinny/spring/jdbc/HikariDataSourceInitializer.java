@@ -0,0 +1,106 @@
+package org.clever.hinny.spring.jdbc;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.spring.config.DataSourceInitMode;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 创建Hikari连接池
+ * <p>
+ * 1. Serial: 依次创建连接池<br/>
+ * 2. Parallel: 使用固定数量的线程并行创建连接池，启动时间取决于最慢的数据库而不是所有数据库的连接时间之和<br/>
+ * 3. Lazy: 只复制配置，第一次调用getConnection时才创建连接池(没有使用的数据源不会创建数据库连接)；
+ * 注册数据源时hinny创建JdbcDataSource、MateDataManage如果获取了数据库连接，连接池会在启动时创建<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 11:55 <br/>
+ */
+@Slf4j
+public class HikariDataSourceInitializer {
+    private final DataSourceInitMode mode;
+    private final int parallelism;
+
+    public HikariDataSourceInitializer(DataSourceInitMode mode, int parallelism) {
+        this.mode = mode == null ? DataSourceInitMode.Serial : mode;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 创建单个连接池
+     */
+    public HikariDataSource create(HikariConfig hikariConfig) {
+        if (mode == DataSourceInitMode.Lazy) {
+            HikariDataSource hikariDataSource = new HikariDataSource();
+            hikariConfig.copyStateTo(hikariDataSource);
+            return hikariDataSource;
+        }
+        return new HikariDataSource(hikariConfig);
+    }
+
+    /**
+     * 创建连接池(任意一个创建失败时关闭已创建的连接池，并抛出异常)
+     *
+     * @param configs 数据源名称 --> 数据源配置
+     * @return 数据源名称 --> 连接池(顺序与configs一致)
+     */
+    public Map<String, HikariDataSource> createAll(Map<String, HikariConfig> configs) {
+        if (mode != DataSourceInitMode.Parallel || configs.size() <= 1) {
+            final Map<String, HikariDataSource> result = new LinkedHashMap<>(configs.size());
+            try {
+                configs.forEach((name, hikariConfig) -> result.put(name, create(hikariConfig)));
+            } catch (RuntimeException e) {
+                closeAll(result.values());
+                throw e;
+            }
+            return result;
+        }
+        final long startTime = System.currentTimeMillis();
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, configs.size()), runnable -> {
+            Thread thread = new Thread(runnable, "datasource-init-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Map<String, Future<HikariDataSource>> futures = new LinkedHashMap<>(configs.size());
+        try {
+            configs.forEach((name, hikariConfig) -> futures.put(name, executor.submit(() -> create(hikariConfig))));
+        } finally {
+            executor.shutdown();
+        }
+        final Map<String, HikariDataSource> result = new LinkedHashMap<>(configs.size());
+        final Map<String, Throwable> errors = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<HikariDataSource>> entry : futures.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(entry.getKey(), e);
+            } catch (ExecutionException e) {
+                errors.put(entry.getKey(), e.getCause());
+            }
+        }
+        if (!errors.isEmpty()) {
+            closeAll(result.values());
+            RuntimeException exception = new RuntimeException("创建数据源失败: " + errors.keySet());
+            errors.forEach((name, error) -> exception.addSuppressed(error));
+            throw exception;
+        }
+        log.info("#并行创建数据源完成 | 数据源数: {} | 耗时: {}ms", result.size(), System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private static void closeAll(Collection<HikariDataSource> dataSources) {
+        for (HikariDataSource dataSource : dataSources) {
+            try {
+                dataSource.close();
+            } catch (Exception e) {
+                log.warn("关闭数据源失败: {}", dataSource.getPoolName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.clever.hinny.spring.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 脚本中使用的JDBC批量写入与流式查询(全局变量名默认是JdbcBulk)
+ * <pre>
+ * // 批量写入，每batchSize条数据在一个事务中提交
+ * JdbcBulk.batchUpdate("insert into t(a, b) values(:a, :b)", rows);
+ * // 流式查询，每次从数据库读取fetchSize条数据，回调返回false时停止读取
+ * JdbcBulk.query("select * from t where b > :b", {b: 1}, row => { ... });
+ * </pre>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 11:20 <br/>
+ */
+@Slf4j
+public class JdbcBulkOperations {
+    private final int defaultBatchSize;
+    private final int defaultFetchSize;
+    /**
+     * 数据源名称 --> 数据源
+     */
+    private final Map<String, DataSource> dataSourceMap = new ConcurrentHashMap<>();
+    private volatile String defaultName;
+
+    public JdbcBulkOperations(int defaultBatchSize, int defaultFetchSize) {
+        this.defaultBatchSize = Math.max(1, defaultBatchSize);
+        this.defaultFetchSize = defaultFetchSize;
+    }
+
+    public void add(String name, DataSource dataSource) {
+        dataSourceMap.put(name, dataSource);
+    }
+
+    public void remove(String name) {
+        dataSourceMap.remove(name);
+    }
+
+    public void setDefault(String defaultName) {
+        this.defaultName = defaultName;
+    }
+
+    public String getDefaultName() {
+        return defaultName;
+    }
+
+    // --------------------------------------------------------------------------------------------------------------------------------------- 批量写入
+
+    /**
+     * 使用默认数据源批量写入
+     *
+     * @param sql  SQL语句(使用 :name 形式的参数)
+     * @param rows 每条数据的参数
+     * @return 影响的总行数
+     */
+    public long batchUpdate(String sql, List<Map<String, Object>> rows) {
+        return batchUpdate(defaultName, sql, rows, defaultBatchSize);
+    }
+
+    /**
+     * 批量写入
+     *
+     * @param dataSourceName 数据源名称
+     * @param sql            SQL语句(使用 :name 形式的参数)
+     * @param rows           每条数据的参数
+     * @return 影响的总行数
+     */
+    public long batchUpdate(String dataSourceName, String sql, List<Map<String, Object>> rows) {
+        return batchUpdate(dataSourceName, sql, rows, defaultBatchSize);
+    }
+
+    /**
+     * 批量写入，每batchSize条数据在一个事务中提交(前面的批次提交后，后面的批次失败时不会回滚前面的批次)<br/>
+     * 当前线程已经在Spring事务中时加入当前事务，所有批次一起提交
+     *
+     * @param dataSourceName 数据源名称
+     * @param sql            SQL语句(使用 :name 形式的参数)
+     * @param rows           每条数据的参数
+     * @param batchSize      每批的数据量
+     * @return 影响的总行数
+     */
+    public long batchUpdate(String dataSourceName, String sql, List<Map<String, Object>> rows, int batchSize) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+        final DataSource dataSource = getDataSource(dataSourceName);
+        final NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        final int size = Math.max(1, batchSize);
+        long total = 0;
+        for (int start = 0; start < rows.size(); start += size) {
+            final List<Map<String, Object>> batch = rows.subList(start, Math.min(start + size, rows.size()));
+            final SqlParameterSource[] params = new SqlParameterSource[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                params[i] = new MapSqlParameterSource(batch.get(i));
+            }
+            final int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(sql, params));
+            if (counts == null) {
+                continue;
+            }
+            for (int count : counts) {
+                // 驱动重写批量语句时返回SUCCESS_NO_INFO(-2)
+                if (count > 0) {
+                    total += count;
+                }
+            }
+        }
+        return total;
+    }
+
+    // --------------------------------------------------------------------------------------------------------------------------------------- 流式查询
+
+    /**
+     * 使用默认数据源流式查询
+     *
+     * @param sql      SQL语句(使用 :name 形式的参数)
+     * @param params   参数(可以为null)
+     * @param callback 每一行数据的回调，返回false时停止读取
+     * @return 读取的行数
+     */
+    public long query(String sql, Map<String, Object> params, Value callback) {
+        return query(defaultName, sql, params, defaultFetchSize, callback);
+    }
+
+    /**
+     * 流式查询
+     *
+     * @param dataSourceName 数据源名称
+     * @param sql            SQL语句(使用 :name 形式的参数)
+     * @param params         参数(可以为null)
+     * @param callback       每一行数据的回调，返回false时停止读取
+     * @return 读取的行数
+     */
+    public long query(String dataSourceName, String sql, Map<String, Object> params, Value callback) {
+        return query(dataSourceName, sql, params, defaultFetchSize, callback);
+    }
+
+    /**
+     * 流式查询，数据逐行交给回调处理而不是全部读取到内存
+     *
+     * @param dataSourceName 数据源名称
+     * @param sql            SQL语句(使用 :name 形式的参数)
+     * @param params         参数(可以为null)
+     * @param fetchSize      每次从数据库读取的数据量
+     * @param callback       每一行数据的回调，返回false时停止读取
+     * @return 读取的行数
+     */
+    public long query(String dataSourceName, String sql, Map<String, Object> params, int fetchSize, Value callback) {
+        if (callback == null || !callback.canExecute()) {
+            throw new IllegalArgumentException("参数callback必须是函数");
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(getDataSource(dataSourceName));
+        jdbcTemplate.setFetchSize(fetchSize);
+        final ColumnMapRowMapper rowMapper = new ColumnMapRowMapper();
+        final long[] rowCount = new long[]{0};
+        try {
+            new NamedParameterJdbcTemplate(jdbcTemplate).query(
+                    sql,
+                    new MapSqlParameterSource(params == null ? Collections.emptyMap() : params),
+                    resultSet -> {
+                        Map<String, Object> row = rowMapper.mapRow(resultSet, (int) rowCount[0]);
+                        rowCount[0]++;
+                        Value result = callback.execute(ProxyObject.fromMap(row));
+                        if (result.isBoolean() && !result.asBoolean()) {
+                            throw new StopQueryException();
+                        }
+                    }
+            );
+        } catch (StopQueryException ignored) {
+            // 回调返回false，停止读取
+        }
+        return rowCount[0];
+    }
+
+    private DataSource getDataSource(String dataSourceName) {
+        final String name = StringUtils.isBlank(dataSourceName) ? defaultName : dataSourceName;
+        DataSource dataSource = name == null ? null : dataSourceMap.get(name);
+        if (dataSource == null) {
+            throw new IllegalArgumentException("数据源不存在: " + name);
+        }
+        return dataSource;
+    }
+
+    /**
+     * 回调返回false时停止读取
+     */
+    private static class StopQueryException extends RuntimeException {
+        private StopQueryException() {
+            super(null, null, false, false);
+        }
+    }
+
+}
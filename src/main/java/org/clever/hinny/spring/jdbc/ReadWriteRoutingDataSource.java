@@ -0,0 +1,397 @@
+package org.clever.hinny.spring.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.clever.hinny.spring.config.ReplicaBalanceStrategy;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * 读写分离数据源(一个主库，多个从库)
+ * <p>
+ * getConnection返回的连接在第一次执行SQL时才获取真正的数据库连接:<br/>
+ * 1. 非事务(autoCommit=true)中的查询语句(prepareStatement)和只读事务(readOnly=true)使用从库<br/>
+ * 2. 其他语句(包括无法判断SQL的createStatement、prepareCall)和事务使用主库<br/>
+ * 3. 因为查询语句使用了从库的连接，之后执行非查询语句、createStatement、prepareCall或者开启事务(setAutoCommit(false))时切换到主库，
+ * 从库连接在关闭时一起关闭(已打开的ResultSet仍然可用)<br/>
+ * 4. 从库获取连接失败时暂停使用failbackInterval后自动恢复，所有从库都不可用时使用主库<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 13:50 <br/>
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    /**
+     * 查询语句(SELECT ... FOR UPDATE 除外)
+     */
+    private static final Pattern Select_Pattern = Pattern.compile("^\\s*(select|with)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern Lock_Pattern = Pattern.compile("\\bfor\\s+update\\b|\\block\\s+in\\s+share\\s+mode\\b", Pattern.CASE_INSENSITIVE);
+    /**
+     * 获取连接耗时的平滑系数
+     */
+    private static final double Latency_Alpha = 0.2;
+
+    private final String name;
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaBalanceStrategy strategy;
+    private final long failbackIntervalMillis;
+    /**
+     * 负载相同时轮流选择从库
+     */
+    private final AtomicInteger nextIndex = new AtomicInteger(0);
+
+    /**
+     * @param name                   数据源名称
+     * @param primary                主库
+     * @param replicas               从库(从库名称 --> 从库)
+     * @param strategy               从库负载均衡策略
+     * @param failbackIntervalMillis 从库获取连接失败后暂停使用的时间
+     */
+    public ReadWriteRoutingDataSource(
+            String name,
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            ReplicaBalanceStrategy strategy,
+            long failbackIntervalMillis) {
+        this.name = name;
+        this.primary = primary;
+        List<Replica> list = new ArrayList<>(replicas.size());
+        replicas.forEach((replicaName, dataSource) -> list.add(new Replica(replicaName, dataSource)));
+        this.replicas = Collections.unmodifiableList(list);
+        this.strategy = strategy == null ? ReplicaBalanceStrategy.LeastActive : strategy;
+        this.failbackIntervalMillis = failbackIntervalMillis;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * 判断数据源是否是当前数据源的主库或从库
+     */
+    public boolean references(DataSource dataSource) {
+        if (primary == dataSource) {
+            return true;
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource == dataSource) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Connection getConnection() {
+        return (Connection) Proxy.newProxyInstance(
+                ReadWriteRoutingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new RoutingConnectionHandler()
+        );
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * 判断是否是可以在从库执行的查询语句
+     */
+    protected static boolean isReadOnlySql(String sql) {
+        return StringUtils.isNotBlank(sql) && Select_Pattern.matcher(sql).find() && !Lock_Pattern.matcher(sql).find();
+    }
+
+    /**
+     * 选择可用的从库(没有可用的从库返回null)
+     */
+    protected Replica chooseReplica() {
+        final int size = replicas.size();
+        if (size <= 0) {
+            return null;
+        }
+        final long now = System.currentTimeMillis();
+        final int start = Math.floorMod(nextIndex.getAndIncrement(), size);
+        Replica best = null;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.downUntil > now) {
+                continue;
+            }
+            if (best == null || replica.load(strategy) < best.load(strategy)) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 获取从库连接，从库都不可用时获取主库连接
+     */
+    protected Connection getReplicaConnection(RoutingConnectionHandler handler) throws SQLException {
+        Replica replica;
+        while ((replica = chooseReplica()) != null) {
+            final long startTime = System.nanoTime();
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.recordLatency(System.nanoTime() - startTime);
+                replica.active.incrementAndGet();
+                handler.replica = replica;
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                replica.downUntil = System.currentTimeMillis() + failbackIntervalMillis;
+                log.warn("#从库获取连接失败，暂停使用{}ms | 数据源: {} | 从库: {}", failbackIntervalMillis, name, replica.name, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public String toString() {
+        return "ReadWriteRoutingDataSource(" + name + ")";
+    }
+
+    protected static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        /**
+         * 使用中的连接数
+         */
+        private final AtomicInteger active = new AtomicInteger(0);
+        /**
+         * 获取连接平均耗时(并发更新时允许丢失部分样本)
+         */
+        private volatile double latencyNanos = 0;
+        /**
+         * 暂停使用直到该时间
+         */
+        private volatile long downUntil = 0;
+
+        protected Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private double load(ReplicaBalanceStrategy strategy) {
+            return strategy == ReplicaBalanceStrategy.Latency ? latencyNanos : active.get();
+        }
+
+        private void recordLatency(long nanos) {
+            latencyNanos = latencyNanos <= 0 ? nanos : latencyNanos * (1 - Latency_Alpha) + nanos * Latency_Alpha;
+        }
+    }
+
+    /**
+     * 延迟获取真正的数据库连接，第一次执行SQL时根据SQL语句和事务状态选择主库或从库
+     */
+    protected class RoutingConnectionHandler implements InvocationHandler {
+        private Connection target;
+        /**
+         * target是否是从库连接
+         */
+        private boolean targetOnReplica = false;
+        /**
+         * 切换到主库之前使用的从库连接
+         */
+        private Connection replicaTarget;
+        private Replica replica;
+        private boolean autoCommit = true;
+        private boolean readOnly = false;
+        private Integer transactionIsolation;
+        private boolean closed = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Routing connection of " + name + (target == null ? "" : " [" + target + "]");
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                case "isClosed":
+                    return target == null ? closed : target.isClosed();
+                case "close":
+                    close();
+                    return null;
+                default:
+                    break;
+            }
+            if (target == null) {
+                switch (method.getName()) {
+                    case "setAutoCommit":
+                        autoCommit = (Boolean) args[0];
+                        return null;
+                    case "getAutoCommit":
+                        return autoCommit;
+                    case "setReadOnly":
+                        readOnly = (Boolean) args[0];
+                        return null;
+                    case "isReadOnly":
+                        return readOnly;
+                    case "setTransactionIsolation":
+                        transactionIsolation = (Integer) args[0];
+                        return null;
+                    case "getTransactionIsolation":
+                        if (transactionIsolation != null) {
+                            return transactionIsolation;
+                        }
+                        break;
+                    case "commit":
+                    case "rollback":
+                    case "clearWarnings":
+                        return null;
+                    case "getWarnings":
+                        return null;
+                    default:
+                        break;
+                }
+                if (closed) {
+                    throw new SQLException("连接已关闭");
+                }
+                target = obtainTarget(method, args);
+            } else if (targetOnReplica && !readOnly && requirePrimary(method, args)) {
+                switchToPrimary();
+            }
+            switch (method.getName()) {
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    break;
+                case "setReadOnly":
+                    readOnly = (Boolean) args[0];
+                    break;
+                case "setTransactionIsolation":
+                    transactionIsolation = (Integer) args[0];
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private Connection obtainTarget(Method method, Object[] args) throws SQLException {
+            boolean useReplica = readOnly;
+            if (!useReplica && autoCommit && "prepareStatement".equals(method.getName())) {
+                useReplica = isReadOnlySql((String) args[0]);
+            }
+            final Connection connection = useReplica ? getReplicaConnection(this) : primary.getConnection();
+            targetOnReplica = replica != null;
+            try {
+                if (transactionIsolation != null) {
+                    connection.setTransactionIsolation(transactionIsolation);
+                }
+                if (readOnly) {
+                    connection.setReadOnly(true);
+                }
+                if (connection.getAutoCommit() != autoCommit) {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException | RuntimeException e) {
+                releaseReplica();
+                connection.close();
+                throw e;
+            }
+            return connection;
+        }
+
+        /**
+         * 使用从库连接时，判断是否需要切换到主库
+         */
+        private boolean requirePrimary(Method method, Object[] args) throws SQLException {
+            final boolean write;
+            switch (method.getName()) {
+                case "setAutoCommit":
+                    return !((Boolean) args[0]) && autoCommit;
+                case "createStatement":
+                case "prepareCall":
+                    write = true;
+                    break;
+                case "prepareStatement":
+                    write = !isReadOnlySql((String) args[0]);
+                    break;
+                default:
+                    return false;
+            }
+            if (write && !autoCommit) {
+                throw new SQLException("不能在从库的事务中执行写操作 | 数据源: " + name);
+            }
+            return write;
+        }
+
+        /**
+         * 获取主库连接，之后的操作都使用主库
+         */
+        private void switchToPrimary() throws SQLException {
+            final Connection connection = primary.getConnection();
+            try {
+                if (transactionIsolation != null) {
+                    connection.setTransactionIsolation(transactionIsolation);
+                }
+                if (connection.getAutoCommit() != autoCommit) {
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+            replicaTarget = target;
+            target = connection;
+            targetOnReplica = false;
+        }
+
+        private void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (target != null) {
+                    target.close();
+                }
+            } finally {
+                try {
+                    if (replicaTarget != null) {
+                        replicaTarget.close();
+                    }
+                } finally {
+                    releaseReplica();
+                }
+            }
+        }
+
+        private void releaseReplica() {
+            if (replica != null) {
+                replica.active.decrementAndGet();
+                replica = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.clever.hinny.spring.metrics;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.spring.mvc.ScriptExecutionStatistics;
+import org.clever.hinny.spring.pool.EngineInstanceStatistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 脚本引擎池Micrometer指标
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 17:02 <br/>
+ */
+public class EnginePoolMetrics implements MeterBinder {
+    private final Supplier<GenericObjectPool<?>> objectPool;
+    private final EngineInstanceStatistics instanceStatistics;
+    private final ScriptExecutionStatistics executionStatistics;
+
+    /**
+     * @param objectPool          获取引擎池底层的GenericObjectPool(返回值可以为null，蓝绿切换后返回新的引擎池)
+     * @param instanceStatistics  引擎实例统计
+     * @param executionStatistics 脚本执行时间统计(可以为null)
+     */
+    public EnginePoolMetrics(
+            Supplier<GenericObjectPool<?>> objectPool,
+            EngineInstanceStatistics instanceStatistics,
+            ScriptExecutionStatistics executionStatistics) {
+        this.objectPool = objectPool;
+        this.instanceStatistics = instanceStatistics;
+        this.executionStatistics = executionStatistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hinny.engine.pool.active", this, metrics -> metrics.getNumActive())
+                .description("使用中的引擎实例数")
+                .register(registry);
+        Gauge.builder("hinny.engine.pool.idle", this, metrics -> metrics.getNumIdle())
+                .description("空闲的引擎实例数")
+                .register(registry);
+        FunctionCounter.builder("hinny.engine.pool.created", instanceStatistics, EngineInstanceStatistics::getCreatedCount)
+                .description("创建的引擎实例总数")
+                .register(registry);
+        FunctionCounter.builder("hinny.engine.pool.destroyed", instanceStatistics, EngineInstanceStatistics::getDestroyedCount)
+                .description("销毁的引擎实例总数")
+                .register(registry);
+        TimeGauge.builder("hinny.engine.pool.instance.age.max", instanceStatistics, TimeUnit.MILLISECONDS, EngineInstanceStatistics::getMaxInstanceAgeMillis)
+                .description("存活时间最长的引擎实例的存活时间")
+                .register(registry);
+        TimeGauge.builder("hinny.engine.pool.instance.age.mean", instanceStatistics, TimeUnit.MILLISECONDS, EngineInstanceStatistics::getMeanInstanceAgeMillis)
+                .description("引擎实例的平均存活时间")
+                .register(registry);
+        final Timer borrowWait = Timer.builder("hinny.engine.pool.borrow.wait")
+                .description("借用引擎实例的等待时间")
+                .publishPercentileHistogram()
+                .register(registry);
+        instanceStatistics.setBorrowWaitListener(nanos -> borrowWait.record(nanos, TimeUnit.NANOSECONDS));
+        if (executionStatistics != null) {
+            // 脚本路径 --> 脚本执行时间Timer(下标0: 成功，1: 失败)，避免每次执行都通过Timer.builder查找Timer
+            // 只有ScriptExecutionStatistics统计的脚本(数量有上限)才会回调，所以数量不会超过其上限
+            final Map<String, Timer[]> executionTimers = new ConcurrentHashMap<>();
+            executionStatistics.setExecutionListener((scriptPath, nanos, error) -> {
+                Timer[] timers = executionTimers.get(scriptPath);
+                if (timers == null) {
+                    timers = executionTimers.computeIfAbsent(scriptPath, path -> new Timer[2]);
+                }
+                final int index = error ? 1 : 0;
+                Timer timer = timers[index];
+                if (timer == null) {
+                    // 并发创建时registry返回同一个Timer
+                    timer = newExecutionTimer(registry, scriptPath, error);
+                    timers[index] = timer;
+                }
+                timer.record(nanos, TimeUnit.NANOSECONDS);
+            });
+        }
+    }
+
+    private static Timer newExecutionTimer(MeterRegistry registry, String scriptPath, boolean error) {
+        return Timer.builder("hinny.script.execution")
+                .description("脚本执行时间")
+                .tag("script", scriptPath)
+                .tag("error", String.valueOf(error))
+                .register(registry);
+    }
+
+    private int getNumActive() {
+        final GenericObjectPool<?> objectPool = this.objectPool.get();
+        return objectPool != null ? objectPool.getNumActive() : instanceStatistics.getNumActive();
+    }
+
+    private int getNumIdle() {
+        final GenericObjectPool<?> objectPool = this.objectPool.get();
+        return objectPool != null ? objectPool.getNumIdle() : instanceStatistics.getNumIdle();
+    }
+}
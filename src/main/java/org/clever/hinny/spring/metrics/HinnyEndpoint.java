@@ -0,0 +1,78 @@
+package org.clever.hinny.spring.metrics;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.spring.mvc.ScriptExecutionStatistics;
+import org.clever.hinny.spring.pool.EngineInstancePools;
+import org.clever.hinny.spring.pool.EngineInstanceStatistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 脚本引擎状态Endpoint(/actuator/hinny)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 17:20 <br/>
+ */
+@Endpoint(id = "hinny")
+public class HinnyEndpoint {
+    /**
+     * 返回的最慢脚本数量
+     */
+    private static final int Slowest_Script_Size = 20;
+
+    private final Supplier<EngineInstancePool<?, ?>> pool;
+    private final EngineInstanceStatistics instanceStatistics;
+    private final ScriptExecutionStatistics executionStatistics;
+
+    public HinnyEndpoint(
+            Supplier<EngineInstancePool<?, ?>> pool,
+            EngineInstanceStatistics instanceStatistics,
+            ScriptExecutionStatistics executionStatistics) {
+        this.pool = pool;
+        this.instanceStatistics = instanceStatistics;
+        this.executionStatistics = executionStatistics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hinny() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enginePool", getEnginePool());
+        if (executionStatistics != null) {
+            result.put("slowestScripts", executionStatistics.getSlowest(Slowest_Script_Size));
+        }
+        return result;
+    }
+
+    protected Map<String, Object> getEnginePool() {
+        final EngineInstancePool<?, ?> pool = this.pool.get();
+        Map<String, Object> enginePool = new LinkedHashMap<>();
+        enginePool.put("type", pool.getClass().getName());
+        enginePool.put("createdCount", instanceStatistics.getCreatedCount());
+        enginePool.put("destroyedCount", instanceStatistics.getDestroyedCount());
+        enginePool.put("borrowedCount", instanceStatistics.getBorrowedCount());
+        enginePool.put("meanBorrowWaitMillis", instanceStatistics.getMeanBorrowWaitMillis());
+        enginePool.put("maxInstanceAgeMillis", instanceStatistics.getMaxInstanceAgeMillis());
+        enginePool.put("meanInstanceAgeMillis", instanceStatistics.getMeanInstanceAgeMillis());
+        GenericObjectPool<?> objectPool = EngineInstancePools.getObjectPool(pool);
+        if (objectPool == null) {
+            enginePool.put("numActive", instanceStatistics.getNumActive());
+            enginePool.put("numIdle", instanceStatistics.getNumIdle());
+            return enginePool;
+        }
+        enginePool.put("numActive", objectPool.getNumActive());
+        enginePool.put("numIdle", objectPool.getNumIdle());
+        enginePool.put("numWaiters", objectPool.getNumWaiters());
+        enginePool.put("maxTotal", objectPool.getMaxTotal());
+        enginePool.put("maxIdle", objectPool.getMaxIdle());
+        enginePool.put("minIdle", objectPool.getMinIdle());
+        enginePool.put("maxBorrowWaitTimeMillis", objectPool.getMaxBorrowWaitTimeMillis());
+        enginePool.put("meanActiveTimeMillis", objectPool.getMeanActiveTimeMillis());
+        enginePool.put("meanIdleTimeMillis", objectPool.getMeanIdleTimeMillis());
+        return enginePool;
+    }
+}
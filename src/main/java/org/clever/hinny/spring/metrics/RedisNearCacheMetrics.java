@@ -0,0 +1,48 @@
+package org.clever.hinny.spring.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.clever.hinny.spring.redis.RedisNearCache;
+import org.clever.hinny.spring.redis.RedisNearCacheManager;
+
+/**
+ * redis近端缓存Micrometer指标(tag name: 数据源名称)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 19:20 <br/>
+ */
+public class RedisNearCacheMetrics implements MeterBinder {
+    private final RedisNearCacheManager nearCacheManager;
+
+    public RedisNearCacheMetrics(RedisNearCacheManager nearCacheManager) {
+        this.nearCacheManager = nearCacheManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (RedisNearCache nearCache : nearCacheManager.getNearCaches()) {
+            FunctionCounter.builder("hinny.redis.near.cache.hits", nearCache, RedisNearCache::getHitCount)
+                    .description("redis近端缓存命中次数")
+                    .tag("name", nearCache.getName())
+                    .register(registry);
+            FunctionCounter.builder("hinny.redis.near.cache.misses", nearCache, RedisNearCache::getMissCount)
+                    .description("redis近端缓存未命中次数")
+                    .tag("name", nearCache.getName())
+                    .register(registry);
+            FunctionCounter.builder("hinny.redis.near.cache.invalidations", nearCache, RedisNearCache::getInvalidateCount)
+                    .description("redis近端缓存收到的失效通知次数")
+                    .tag("name", nearCache.getName())
+                    .register(registry);
+            FunctionCounter.builder("hinny.redis.near.cache.evictions", nearCache, RedisNearCache::getEvictionCount)
+                    .description("redis近端缓存超过最大数量后淘汰的次数")
+                    .tag("name", nearCache.getName())
+                    .register(registry);
+            Gauge.builder("hinny.redis.near.cache.size", nearCache, RedisNearCache::size)
+                    .description("redis近端缓存数量")
+                    .tag("name", nearCache.getName())
+                    .register(registry);
+        }
+    }
+}
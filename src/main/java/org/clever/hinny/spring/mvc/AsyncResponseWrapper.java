@@ -0,0 +1,356 @@
+package org.clever.hinny.spring.mvc;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 异步执行脚本时传给脚本的响应，请求结束(超时)后丢弃脚本对响应的所有修改
+ * <p>
+ * 请求超时后容器会回收response，而超时的脚本可能还在执行(无法取消或者取消还没生效)，
+ * 所以每次修改响应都在lock中检查completed，超时处理在lock中设置completed后脚本就不会再写入响应
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 22:40 <br/>
+ */
+public class AsyncResponseWrapper extends HttpServletResponseWrapper {
+    private final Object lock;
+    private final AtomicBoolean completed;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * @param response  原始响应
+     * @param lock      设置completed时使用的锁
+     * @param completed 请求是否已经结束
+     */
+    public AsyncResponseWrapper(HttpServletResponse response, Object lock, AtomicBoolean completed) {
+        super(response);
+        this.lock = lock;
+        this.completed = completed;
+    }
+
+    /**
+     * 请求是否已经结束(结束后对响应的修改都会被丢弃)
+     */
+    public boolean isCompleted() {
+        return completed.get();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        synchronized (lock) {
+            if (outputStream == null) {
+                outputStream = completed.get() ? new GuardedOutputStream(null) : new GuardedOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        synchronized (lock) {
+            if (writer == null) {
+                writer = new PrintWriter(completed.get() ? new GuardedWriter(null) : new GuardedWriter(super.getWriter()));
+            }
+            return writer;
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.resetBuffer();
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.reset();
+            }
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.sendError(sc, msg);
+            }
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.sendError(sc);
+            }
+        }
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.sendRedirect(location);
+            }
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setStatus(sc);
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setStatus(int sc, String sm) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setStatus(sc, sm);
+            }
+        }
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.addCookie(cookie);
+            }
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.addHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setDateHeader(name, date);
+            }
+        }
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.addDateHeader(name, date);
+            }
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setIntHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.addIntHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void setContentType(String type) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setContentType(type);
+            }
+        }
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setCharacterEncoding(charset);
+            }
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setContentLength(len);
+            }
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setContentLengthLong(len);
+            }
+        }
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        synchronized (lock) {
+            if (!completed.get()) {
+                super.setBufferSize(size);
+            }
+        }
+    }
+
+    /**
+     * 请求结束后丢弃写入的数据(target为null表示获取时请求已经结束)
+     */
+    private class GuardedOutputStream extends ServletOutputStream {
+        private final ServletOutputStream target;
+
+        private GuardedOutputStream(ServletOutputStream target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.write(b);
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.write(b, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.flush();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.close();
+                }
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            synchronized (lock) {
+                return target != null && !completed.get() && target.isReady();
+            }
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.setWriteListener(writeListener);
+                }
+            }
+        }
+    }
+
+    /**
+     * 请求结束后丢弃写入的数据(target为null表示获取时请求已经结束)
+     */
+    private class GuardedWriter extends Writer {
+        private final Writer target;
+
+        private GuardedWriter(Writer target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] buffer, int off, int len) throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.write(buffer, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.write(str, off, len);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.flush();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (lock) {
+                if (target != null && !completed.get()) {
+                    target.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.clever.hinny.spring.mvc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.spring.config.AsyncRejectPolicy;
+import org.clever.hinny.spring.config.ScriptMvcHandlerConfig;
+
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步执行脚本的线程池(有界队列，与Web容器线程数、引擎池大小相互独立)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 19:52 <br/>
+ */
+@Slf4j
+public class AsyncScriptExecutor {
+    private final ThreadPoolExecutor executor;
+    private final AsyncRejectPolicy rejectPolicy;
+    private final RouteTimeouts routeTimeouts;
+
+    public AsyncScriptExecutor(ScriptMvcHandlerConfig.AsyncConfig asyncConfig) {
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        this.executor = new ThreadPoolExecutor(
+                asyncConfig.getCorePoolSize(),
+                Math.max(asyncConfig.getCorePoolSize(), asyncConfig.getMaxPoolSize()),
+                asyncConfig.getKeepAlive().toMillis(),
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, asyncConfig.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "script-async-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.rejectPolicy = asyncConfig.getRejectPolicy();
+        this.routeTimeouts = new RouteTimeouts(asyncConfig.getTimeout(), asyncConfig.getRouteTimeouts(), Collections.emptyMap());
+    }
+
+    /**
+     * 执行任务，线程池已满时抛出 RejectedExecutionException
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    public AsyncRejectPolicy getRejectPolicy() {
+        return rejectPolicy;
+    }
+
+    /**
+     * 获取请求的超时时间(毫秒)
+     */
+    public long getTimeout(String requestPath) {
+        return routeTimeouts.getTimeout(requestPath, null);
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("#异步执行脚本线程池已关闭");
+    }
+}
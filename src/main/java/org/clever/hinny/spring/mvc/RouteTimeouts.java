@@ -0,0 +1,54 @@
+package org.clever.hinny.spring.mvc;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 请求超时时间配置(脚本路径精确匹配优先，其次使用最长匹配的请求路径前缀，最后使用默认值)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 20:30 <br/>
+ */
+public class RouteTimeouts {
+    private final long defaultTimeout;
+    /**
+     * 请求路径前缀 --> 超时时间(按前缀长度倒序)
+     */
+    private final List<Map.Entry<String, Long>> prefixTimeouts = new ArrayList<>();
+    /**
+     * 脚本路径 --> 超时时间
+     */
+    private final Map<String, Long> scriptTimeouts = new HashMap<>();
+
+    public RouteTimeouts(Duration defaultTimeout, Map<String, Duration> prefixTimeouts, Map<String, Duration> scriptTimeouts) {
+        this.defaultTimeout = defaultTimeout == null ? -1 : defaultTimeout.toMillis();
+        if (prefixTimeouts != null) {
+            prefixTimeouts.forEach((prefix, timeout) -> this.prefixTimeouts.add(new AbstractMap.SimpleImmutableEntry<>(prefix, timeout.toMillis())));
+            this.prefixTimeouts.sort((a, b) -> b.getKey().length() - a.getKey().length());
+        }
+        if (scriptTimeouts != null) {
+            scriptTimeouts.forEach((script, timeout) -> this.scriptTimeouts.put(script, timeout.toMillis()));
+        }
+    }
+
+    /**
+     * 获取超时时间(毫秒)，小于等于0表示不限制
+     *
+     * @param requestPath 请求路径
+     * @param scriptPath  脚本路径(可以为null)
+     */
+    public long getTimeout(String requestPath, String scriptPath) {
+        if (scriptPath != null) {
+            Long timeout = scriptTimeouts.get(scriptPath);
+            if (timeout != null) {
+                return timeout;
+            }
+        }
+        for (Map.Entry<String, Long> entry : prefixTimeouts) {
+            if (requestPath.startsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return defaultTimeout;
+    }
+}
@@ -0,0 +1,130 @@
+package org.clever.hinny.spring.mvc;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 脚本执行时间统计(按脚本路径)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 16:20 <br/>
+ */
+public class ScriptExecutionStatistics {
+    /**
+     * 最多统计的脚本数量(避免统计数据无限增长)
+     */
+    private final int maxScriptCount;
+    /**
+     * 脚本路径 --> 执行统计
+     */
+    private final Map<String, Stats> statsMap = new ConcurrentHashMap<>();
+    /**
+     * 脚本执行时间监听(脚本路径, 纳秒)
+     */
+    private volatile ExecutionListener executionListener;
+
+    public ScriptExecutionStatistics(int maxScriptCount) {
+        this.maxScriptCount = maxScriptCount;
+    }
+
+    /**
+     * 记录脚本执行时间
+     */
+    public void record(String scriptPath, long nanos, boolean error) {
+        Stats stats = statsMap.get(scriptPath);
+        if (stats == null) {
+            if (statsMap.size() >= maxScriptCount) {
+                return;
+            }
+            stats = statsMap.computeIfAbsent(scriptPath, Stats::new);
+        }
+        stats.record(nanos, error);
+        ExecutionListener listener = executionListener;
+        if (listener != null) {
+            listener.onExecution(scriptPath, nanos, error);
+        }
+    }
+
+    /**
+     * 获取最慢的脚本(按平均执行时间倒序)
+     */
+    public List<Snapshot> getSlowest(int limit) {
+        return statsMap.values().stream()
+                .map(Stats::snapshot)
+                .sorted(Comparator.comparingDouble(Snapshot::getMeanMillis).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public void setExecutionListener(ExecutionListener executionListener) {
+        this.executionListener = executionListener;
+    }
+
+    public interface ExecutionListener {
+        void onExecution(String scriptPath, long nanos, boolean error);
+    }
+
+    private static class Stats {
+        private final String scriptPath;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Stats(String scriptPath) {
+            this.scriptPath = scriptPath;
+        }
+
+        void record(long nanos, boolean error) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (error) {
+                errorCount.increment();
+            }
+        }
+
+        Snapshot snapshot() {
+            Snapshot snapshot = new Snapshot();
+            long total = count.sum();
+            snapshot.setScriptPath(scriptPath);
+            snapshot.setCount(total);
+            snapshot.setErrorCount(errorCount.sum());
+            snapshot.setMeanMillis(total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total);
+            snapshot.setMaxMillis(maxNanos.get() / 1_000_000.0);
+            return snapshot;
+        }
+    }
+
+    @Data
+    public static class Snapshot implements Serializable {
+        /**
+         * 脚本路径
+         */
+        private String scriptPath;
+        /**
+         * 执行次数
+         */
+        private long count;
+        /**
+         * 执行失败次数
+         */
+        private long errorCount;
+        /**
+         * 平均执行时间(毫秒)
+         */
+        private double meanMillis;
+        /**
+         * 最大执行时间(毫秒)
+         */
+        private double maxMillis;
+    }
+}
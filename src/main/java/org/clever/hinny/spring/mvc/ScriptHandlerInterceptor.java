@@ -0,0 +1,375 @@
+package org.clever.hinny.spring.mvc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.mvc.HttpRequestScriptHandler;
+import org.clever.hinny.spring.config.AsyncRejectPolicy;
+import org.clever.hinny.spring.pool.EngineInstanceStatistics;
+import org.clever.hinny.spring.pool.EngineInstanceWatchdog;
+import org.slf4j.MDC;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 包装 {@link HttpRequestScriptHandler} 的拦截器，统计脚本执行时间，使用脚本路由索引或者不存在脚本的请求缓存跳过非脚本请求
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 16:40 <br/>
+ */
+@Slf4j
+public class ScriptHandlerInterceptor implements HandlerInterceptor {
+    /**
+     * 异步执行时脚本不处理的请求会重新分派(async dispatch)，重新分派的请求跳过脚本处理
+     */
+    private static final String Skip_Script_Attribute = ScriptHandlerInterceptor.class.getName() + ".SKIP";
+    /**
+     * 处理当前请求的HandlerGeneration(保证同一个请求的preHandle/postHandle/afterCompletion使用同一个Handler)
+     */
+    private static final String Generation_Attribute = ScriptHandlerInterceptor.class.getName() + ".GENERATION";
+
+    /**
+     * 当前使用的Handler(蓝绿切换时替换)
+     */
+    private volatile HandlerGeneration generation;
+    private final ScriptPathResolver scriptPathResolver;
+    private final ScriptExecutionStatistics executionStatistics;
+    /**
+     * 脚本路由索引(可以为null)
+     */
+    private final ScriptRouteIndex scriptRouteIndex;
+    /**
+     * 不存在脚本的请求缓存(可以为null)
+     */
+    private final ScriptNegativeCache scriptNegativeCache;
+    /**
+     * 异步执行脚本的线程池(可以为null)
+     */
+    private final AsyncScriptExecutor asyncScriptExecutor;
+    /**
+     * 限制脚本执行时间(可以为null)
+     */
+    private final EngineInstanceWatchdog engineInstanceWatchdog;
+    /**
+     * 脚本执行时间限制(可以为null)
+     */
+    private final RouteTimeouts executionTimeouts;
+    /**
+     * 脚本执行结果缓存(可以为null)
+     */
+    private final ScriptResultCache scriptResultCache;
+
+    public ScriptHandlerInterceptor(
+            HttpRequestScriptHandler<?, ?> httpRequestScriptHandler,
+            ScriptPathResolver scriptPathResolver,
+            ScriptExecutionStatistics executionStatistics,
+            ScriptRouteIndex scriptRouteIndex,
+            ScriptNegativeCache scriptNegativeCache,
+            AsyncScriptExecutor asyncScriptExecutor,
+            EngineInstanceWatchdog engineInstanceWatchdog,
+            RouteTimeouts executionTimeouts,
+            ScriptResultCache scriptResultCache) {
+        this.generation = new HandlerGeneration(httpRequestScriptHandler);
+        this.scriptPathResolver = scriptPathResolver;
+        this.executionStatistics = executionStatistics;
+        this.scriptRouteIndex = scriptRouteIndex;
+        this.scriptNegativeCache = scriptNegativeCache;
+        this.asyncScriptExecutor = asyncScriptExecutor;
+        this.engineInstanceWatchdog = engineInstanceWatchdog;
+        this.executionTimeouts = executionTimeouts;
+        this.scriptResultCache = scriptResultCache;
+    }
+
+    public HttpRequestScriptHandler<?, ?> getHttpRequestScriptHandler() {
+        return generation.getHandler();
+    }
+
+    /**
+     * 替换当前使用的Handler，正在执行的请求继续使用旧的Handler
+     *
+     * @return 旧的HandlerGeneration(用于等待正在执行的请求完成)
+     */
+    public HandlerGeneration swapHandler(HttpRequestScriptHandler<?, ?> httpRequestScriptHandler) {
+        HandlerGeneration old = this.generation;
+        this.generation = new HandlerGeneration(httpRequestScriptHandler);
+        return old;
+    }
+
+    private HandlerGeneration getGeneration(HttpServletRequest request) {
+        Object generation = request.getAttribute(Generation_Attribute);
+        return generation instanceof HandlerGeneration ? (HandlerGeneration) generation : this.generation;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (DispatcherType.ASYNC.equals(request.getDispatcherType()) && request.getAttribute(Skip_Script_Attribute) != null) {
+            return true;
+        }
+        final String requestPath = scriptPathResolver.getRequestPath(request);
+        if (scriptRouteIndex != null && !scriptRouteIndex.match(requestPath)) {
+            return true;
+        }
+        final String negativeKey = scriptNegativeCache == null ? null : request.getMethod() + " " + requestPath;
+        if (negativeKey != null && scriptNegativeCache.contains(negativeKey)) {
+            return true;
+        }
+        request.setAttribute(Generation_Attribute, generation);
+        if (asyncScriptExecutor != null && request.isAsyncSupported() && !request.isAsyncStarted()) {
+            handleAsync(request, response, handler, requestPath, negativeKey);
+            return false;
+        }
+        return invokeHandler(request, response, handler, requestPath, negativeKey);
+    }
+
+    /**
+     * 调用脚本处理请求
+     *
+     * @return 脚本不处理当前请求返回true
+     */
+    protected boolean invokeHandler(HttpServletRequest request, HttpServletResponse response, Object handler, String requestPath, String negativeKey) throws Exception {
+        final ScriptResultCache.Rule cacheRule = scriptResultCache == null ? null : scriptResultCache.getRule(request, requestPath);
+        if (cacheRule != null) {
+            final String cacheKey = scriptResultCache.getKey(cacheRule, requestPath, request);
+            ScriptResultCache.CachedResult cachedResult = scriptResultCache.get(cacheKey);
+            if (cachedResult != null) {
+                cachedResult.writeTo(response);
+                return false;
+            }
+            // 脚本的响应先写入缓冲区，缓存后再输出
+            ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+            try {
+                boolean next = doInvokeHandler(request, responseWrapper, handler, requestPath, negativeKey);
+                if (!next) {
+                    scriptResultCache.put(cacheKey, cacheRule, responseWrapper);
+                }
+                return next;
+            } finally {
+                responseWrapper.copyBodyToResponse();
+            }
+        }
+        return doInvokeHandler(request, response, handler, requestPath, negativeKey);
+    }
+
+    private boolean doInvokeHandler(HttpServletRequest request, HttpServletResponse response, Object handler, String requestPath, String negativeKey) throws Exception {
+        final long startTime = System.nanoTime();
+        final HandlerGeneration generation = getGeneration(request);
+        boolean next = true;
+        boolean error = false;
+        generation.inFlight.incrementAndGet();
+        EngineInstanceStatistics.beginBorrow();
+        EngineInstanceWatchdog.Ticket ticket = null;
+        if (engineInstanceWatchdog != null && executionTimeouts != null) {
+            ticket = engineInstanceWatchdog.watch(executionTimeouts.getTimeout(requestPath, scriptPathResolver.resolve(requestPath)));
+        }
+        try {
+            next = generation.getHandler().preHandle(request, response, handler);
+            return next;
+        } catch (Exception e) {
+            error = true;
+            throw e;
+        } finally {
+            if (ticket != null) {
+                ticket.close();
+            }
+            EngineInstanceStatistics.endBorrow();
+            generation.inFlight.decrementAndGet();
+            if (next && !error && negativeKey != null) {
+                scriptNegativeCache.put(negativeKey);
+            }
+            if (!next || error) {
+                String scriptPath = scriptPathResolver.resolve(requestPath);
+                if (scriptPath != null) {
+                    executionStatistics.record(scriptPath, System.nanoTime() - startTime, error);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在异步线程池中执行脚本
+     * <p>
+     * 执行脚本的线程中可以使用RequestContextHolder(重新创建的ServletRequestAttributes)、LocaleContextHolder和MDC(从请求线程复制)，
+     * 其它ThreadLocal(如：SecurityContextHolder)不会传递
+     */
+    protected void handleAsync(HttpServletRequest request, HttpServletResponse response, Object handler, String requestPath, String negativeKey) throws Exception {
+        final AsyncContext asyncContext = request.startAsync(request, response);
+        final AtomicBoolean completed = new AtomicBoolean(false);
+        // 正在执行脚本的线程，worker与completed的修改都在workerLock中进行
+        final Object workerLock = new Object();
+        final AtomicReference<Thread> worker = new AtomicReference<>();
+        final Thread requestThread = Thread.currentThread();
+        asyncContext.setTimeout(asyncScriptExecutor.getTimeout(requestPath));
+        asyncContext.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                synchronized (workerLock) {
+                    completed.set(true);
+                }
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) throws IOException {
+                synchronized (workerLock) {
+                    if (!completed.compareAndSet(false, true)) {
+                        return;
+                    }
+                    log.warn("#脚本执行超时 | path={} | timeout={}ms", requestPath, asyncContext.getTimeout());
+                    // 取消正在执行的脚本，释放引擎实例(容器会回收request/response，脚本之后对AsyncResponseWrapper的写入都会被丢弃)
+                    final Thread thread = worker.get();
+                    if (thread != null && (engineInstanceWatchdog == null || !engineInstanceWatchdog.cancel(thread))) {
+                        log.warn("#无法取消超时的脚本，脚本会继续执行到结束 | path={}", requestPath);
+                    }
+                }
+                if (!response.isCommitted()) {
+                    response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "脚本执行超时");
+                }
+                asyncContext.complete();
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                synchronized (workerLock) {
+                    completed.set(true);
+                }
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        // 脚本只能通过scriptResponse写入响应，请求结束(超时)后的写入会被丢弃
+        final AsyncResponseWrapper scriptResponse = new AsyncResponseWrapper(response, workerLock, completed);
+        // 把当前线程的LocaleContext、MDC传给执行脚本的线程，RequestAttributes在执行脚本的线程中重新创建
+        final LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        final Map<String, String> mdcContext = MDC.getCopyOfContextMap();
+        final Runnable task = () -> {
+            synchronized (workerLock) {
+                if (completed.get()) {
+                    // 排队期间已超时，请求已结束
+                    return;
+                }
+                worker.set(Thread.currentThread());
+            }
+            final boolean sameThread = Thread.currentThread() == requestThread;
+            final LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+            final RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+            final Map<String, String> previousMdcContext = MDC.getCopyOfContextMap();
+            final ServletRequestAttributes requestAttributes = new ServletRequestAttributes(request, scriptResponse);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            setMdcContext(mdcContext);
+            boolean next = false;
+            try {
+                next = invokeHandler(request, scriptResponse, handler, requestPath, negativeKey);
+            } catch (Throwable e) {
+                synchronized (workerLock) {
+                    if (!completed.get()) {
+                        log.error("#异步执行脚本失败 | path={}", requestPath, e);
+                        if (!response.isCommitted()) {
+                            try {
+                                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                            } catch (IOException ignored) {
+                            }
+                        }
+                    }
+                }
+            } finally {
+                synchronized (workerLock) {
+                    worker.set(null);
+                }
+                requestAttributes.requestCompleted();
+                if (!sameThread) {
+                    LocaleContextHolder.resetLocaleContext();
+                    RequestContextHolder.resetRequestAttributes();
+                    MDC.clear();
+                } else {
+                    // CallerRuns时在请求线程中执行，恢复请求线程原来的上下文
+                    LocaleContextHolder.setLocaleContext(previousLocaleContext);
+                    RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+                    setMdcContext(previousMdcContext);
+                }
+            }
+            if (!completed.compareAndSet(false, true)) {
+                return;
+            }
+            if (next) {
+                // 脚本不处理当前请求，重新分派给后续的Handler
+                request.setAttribute(Skip_Script_Attribute, Boolean.TRUE);
+                asyncContext.dispatch();
+            } else {
+                asyncContext.complete();
+            }
+        };
+        try {
+            asyncScriptExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (AsyncRejectPolicy.CallerRuns.equals(asyncScriptExecutor.getRejectPolicy())) {
+                task.run();
+                return;
+            }
+            if (completed.compareAndSet(false, true)) {
+                log.warn("#异步执行脚本线程池已满，拒绝请求 | path={}", requestPath);
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "服务器繁忙");
+                asyncContext.complete();
+            }
+        }
+    }
+
+    private static void setMdcContext(Map<String, String> mdcContext) {
+        if (mdcContext == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdcContext);
+        }
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) throws Exception {
+        getGeneration(request).getHandler().postHandle(request, response, handler, modelAndView);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        getGeneration(request).getHandler().afterCompletion(request, response, handler, ex);
+    }
+
+    /**
+     * 一代Handler以及使用它正在执行的请求数
+     */
+    public static class HandlerGeneration {
+        private final HttpRequestScriptHandler<?, ?> handler;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+
+        private HandlerGeneration(HttpRequestScriptHandler<?, ?> handler) {
+            this.handler = handler;
+        }
+
+        public HttpRequestScriptHandler<?, ?> getHandler() {
+            return handler;
+        }
+
+        /**
+         * 正在执行的请求数
+         */
+        public int getInFlight() {
+            return inFlight.get();
+        }
+    }
+}
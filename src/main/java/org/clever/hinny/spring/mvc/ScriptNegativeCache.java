@@ -0,0 +1,110 @@
+package org.clever.hinny.spring.mvc;
+
+import org.clever.hinny.spring.reload.ScriptFileChangeListener;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 不存在脚本的请求缓存(TTL)
+ * <p>
+ * 读取不加锁(ConcurrentHashMap)，数量超过maxSize时先删除过期的请求，仍然超过时随机删除部分请求(近似淘汰，不是严格的LRU)<br/>
+ * 脚本文件新增或者修改时清空缓存
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 19:05 <br/>
+ */
+public class ScriptNegativeCache implements ScriptFileChangeListener {
+    private final int maxSize;
+    private final long ttlMillis;
+    /**
+     * 请求 --> 过期时间
+     */
+    private final ConcurrentHashMap<String, Long> cache;
+    /**
+     * 是否正在淘汰(同一时间只有一个线程淘汰)
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public ScriptNegativeCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.cache = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * 判断请求是否已知不存在脚本
+     */
+    public boolean contains(String key) {
+        final Long expireAt = cache.get(key);
+        if (expireAt != null && expireAt > System.currentTimeMillis()) {
+            hitCount.increment();
+            return true;
+        }
+        if (expireAt != null) {
+            cache.remove(key, expireAt);
+        }
+        missCount.increment();
+        return false;
+    }
+
+    /**
+     * 记录请求不存在脚本
+     */
+    public void put(String key) {
+        cache.put(key, System.currentTimeMillis() + ttlMillis);
+        if (cache.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 删除过期的请求，仍然超过maxSize时删除部分请求(删除到maxSize的90%，避免每次put都淘汰)
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final long now = System.currentTimeMillis();
+            cache.values().removeIf(expireAt -> expireAt <= now);
+            final int target = maxSize - maxSize / 10;
+            final Iterator<String> iterator = cache.keySet().iterator();
+            while (cache.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public void onFileChange(File file) {
+        // 删除文件不会让不存在脚本的请求变成存在
+        if (file.exists()) {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.clever.hinny.spring.mvc;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 根据“请求路径”和“脚本路径”映射规则解析请求对应的脚本路径
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 16:05 <br/>
+ */
+public class ScriptPathResolver {
+    /**
+     * 请求路径前缀 --> 脚本路径前缀
+     */
+    private final LinkedHashMap<String, String> prefixMappings;
+    /**
+     * 支持的请求后缀
+     */
+    private final Set<String> supportSuffix;
+
+    public ScriptPathResolver(LinkedHashMap<String, String> prefixMappings, Set<String> supportSuffix) {
+        this.prefixMappings = prefixMappings;
+        this.supportSuffix = supportSuffix;
+    }
+
+    public LinkedHashMap<String, String> getPrefixMappings() {
+        return prefixMappings;
+    }
+
+    public Set<String> getSupportSuffix() {
+        return supportSuffix;
+    }
+
+    /**
+     * 获取请求路径(不包含contextPath)
+     */
+    public String getRequestPath(HttpServletRequest request) {
+        String requestPath = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (StringUtils.isNotBlank(contextPath) && requestPath.startsWith(contextPath)) {
+            requestPath = requestPath.substring(contextPath.length());
+        }
+        return requestPath;
+    }
+
+    /**
+     * 获取请求对应的脚本路径(不包含后缀)，不支持的请求返回null
+     */
+    public String resolve(HttpServletRequest request) {
+        return resolve(getRequestPath(request));
+    }
+
+    /**
+     * 获取请求路径对应的脚本路径(不包含后缀)，不支持的请求返回null
+     */
+    public String resolve(String requestPath) {
+        if (StringUtils.isBlank(requestPath)) {
+            return null;
+        }
+        String suffix = getSuffix(requestPath);
+        if (!supportSuffix.contains(suffix)) {
+            return null;
+        }
+        requestPath = requestPath.substring(0, requestPath.length() - suffix.length());
+        for (Map.Entry<String, String> entry : prefixMappings.entrySet()) {
+            String requestPrefix = entry.getKey();
+            if (!requestPath.startsWith(requestPrefix)) {
+                continue;
+            }
+            String scriptPath = StringUtils.defaultString(entry.getValue()) + "/" + requestPath.substring(requestPrefix.length());
+            scriptPath = scriptPath.replaceAll("/{2,}", "/");
+            return scriptPath.startsWith("/") ? scriptPath : "/" + scriptPath;
+        }
+        return null;
+    }
+
+    /**
+     * 获取请求路径的后缀(如: “.json”)，没有后缀返回空字符串
+     */
+    public static String getSuffix(String requestPath) {
+        int slashIndex = requestPath.lastIndexOf('/');
+        int dotIndex = requestPath.lastIndexOf('.');
+        if (dotIndex <= slashIndex) {
+            return "";
+        }
+        return requestPath.substring(dotIndex);
+    }
+}
@@ -0,0 +1,389 @@
+package org.clever.hinny.spring.mvc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.spring.config.ScriptMvcHandlerConfig;
+import org.clever.hinny.spring.reload.ScriptFileChangeListener;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 脚本执行结果缓存(一级缓存: 本地缓存，二级缓存: {@link ScriptResultRemoteStore})
+ * <p>
+ * 1. 只缓存匹配缓存规则的GET请求，缓存Key由请求路径和规则中配置的请求参数(URL编码)组成<br/>
+ * 2. 带有Authorization请求头或者会话(session id)的请求不使用缓存(缓存Key不区分用户，避免把一个用户的结果返回给其他用户)<br/>
+ * 3. 只缓存状态码200、没有设置Cookie、没有Vary、Cache-Control不是private/no-store、响应内容不超过maxBodySize的结果，缓存状态码、响应头和响应内容<br/>
+ * 4. 命中缓存时直接输出缓存的结果，不会借用脚本引擎实例也不会访问数据库<br/>
+ * 5. 脚本文件变化时使所有节点的缓存失效<br/>
+ * 6. 本地缓存读取不加锁，数量超过maxSize时先删除过期的结果，仍然超过时随机删除部分结果(近似淘汰，不是严格的LRU)<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 14:35 <br/>
+ */
+@Slf4j
+public class ScriptResultCache implements ScriptFileChangeListener {
+    private static final String Cache_Method = "GET";
+    /**
+     * 不缓存的响应头(输出缓存结果时重新设置)
+     */
+    private static final Set<String> Skip_Headers = new HashSet<>(Arrays.asList("content-type", "content-length", "transfer-encoding"));
+
+    private final int maxSize;
+    private final int maxBodySize;
+    /**
+     * 缓存规则(按请求路径前缀长度倒序)
+     */
+    private final List<Rule> rules = new ArrayList<>();
+    /**
+     * 缓存Key --> 缓存结果
+     */
+    private final ConcurrentHashMap<String, CachedResult> cache;
+    /**
+     * 是否正在淘汰(同一时间只有一个线程淘汰)
+     */
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    /**
+     * 二级缓存(可以为null)
+     */
+    private final ScriptResultRemoteStore remoteStore;
+    private final LongAdder localHitCount = new LongAdder();
+    private final LongAdder remoteHitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * @param maxSize     本地缓存最大数量(超过时先淘汰过期的结果，再近似淘汰部分结果)
+     * @param maxBodySize 最大缓存的响应内容大小(字节)
+     * @param rules       缓存规则
+     * @param remoteStore 二级缓存(可以为null)
+     */
+    public ScriptResultCache(int maxSize, int maxBodySize, List<ScriptMvcHandlerConfig.ResultCacheRule> rules, ScriptResultRemoteStore remoteStore) {
+        this.maxSize = maxSize;
+        this.maxBodySize = maxBodySize;
+        this.cache = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+        if (rules != null) {
+            for (ScriptMvcHandlerConfig.ResultCacheRule rule : rules) {
+                this.rules.add(new Rule(rule.getRequestPath(), rule.getTtl().toMillis(), rule.getKeyParams()));
+            }
+            this.rules.sort((a, b) -> b.prefix.length() - a.prefix.length());
+        }
+        this.remoteStore = remoteStore;
+        if (remoteStore != null) {
+            remoteStore.subscribe(this::clearLocal);
+        }
+    }
+
+    /**
+     * 获取请求使用的缓存规则
+     *
+     * @return 请求不需要缓存返回null
+     */
+    public Rule getRule(HttpServletRequest request, String requestPath) {
+        if (!Cache_Method.equals(request.getMethod())) {
+            return null;
+        }
+        // 响应可能与用户相关
+        if (request.getHeader("Authorization") != null || request.getRequestedSessionId() != null) {
+            return null;
+        }
+        for (Rule rule : rules) {
+            if (requestPath.startsWith(rule.prefix)) {
+                return rule.ttlMillis > 0 ? rule : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 生成缓存Key(请求路径 + 规则中配置的请求参数)
+     */
+    public String getKey(Rule rule, String requestPath, HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(requestPath);
+        char separator = '?';
+        for (String param : rule.keyParams) {
+            String[] values = request.getParameterValues(param);
+            if (values == null) {
+                continue;
+            }
+            for (String value : values) {
+                key.append(separator).append(encode(param)).append('=').append(encode(value));
+                separator = '&';
+            }
+        }
+        return key.toString();
+    }
+
+
+    /**
+     * 读取缓存(先读本地缓存，再读二级缓存)
+     *
+     * @return 不存在返回null
+     */
+    public CachedResult get(String key) {
+        final long now = System.currentTimeMillis();
+        final CachedResult cached = cache.get(key);
+        if (cached != null && cached.expireAt > now) {
+            localHitCount.increment();
+            return cached;
+        }
+        if (cached != null) {
+            cache.remove(key, cached);
+        }
+        if (remoteStore != null) {
+            try {
+                byte[] bytes = remoteStore.get(key);
+                CachedResult result = bytes == null ? null : CachedResult.fromBytes(bytes);
+                if (result != null && result.expireAt > now) {
+                    putLocal(key, result);
+                    remoteHitCount.increment();
+                    return result;
+                }
+            } catch (Exception e) {
+                log.debug("#读取脚本结果二级缓存失败 | key={}", key, e);
+            }
+        }
+        missCount.increment();
+        return null;
+    }
+
+    /**
+     * 缓存脚本的响应(不满足缓存条件时忽略)
+     */
+    public void put(String key, Rule rule, ContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK
+                || response.getContentSize() > maxBodySize
+                || response.containsHeader("Set-Cookie")
+                || response.containsHeader("Vary")
+                || isPrivate(response.getHeaders("Cache-Control"))) {
+            return;
+        }
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!Skip_Headers.contains(name.toLowerCase())) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        final CachedResult result = new CachedResult(
+                response.getStatus(),
+                response.getContentType(),
+                headers,
+                response.getContentAsByteArray(),
+                System.currentTimeMillis() + rule.ttlMillis
+        );
+        putLocal(key, result);
+        if (remoteStore != null) {
+            try {
+                remoteStore.put(key, result.toBytes(), rule.ttlMillis);
+            } catch (Exception e) {
+                log.debug("#写入脚本结果二级缓存失败 | key={}", key, e);
+            }
+        }
+    }
+
+    /**
+     * 使所有节点的缓存失效
+     */
+    public void invalidateAll() {
+        clearLocal();
+        if (remoteStore != null) {
+            try {
+                remoteStore.invalidateAll();
+            } catch (Exception e) {
+                log.warn("#脚本结果二级缓存失效失败", e);
+            }
+        }
+    }
+
+    protected void clearLocal() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getLocalHitCount() {
+        return localHitCount.sum();
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public void onFileChange(File file) {
+        invalidateAll();
+    }
+
+    private void putLocal(String key, CachedResult result) {
+        cache.put(key, result);
+        if (cache.size() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * 删除过期的结果，仍然超过maxSize时删除部分结果(删除到maxSize的90%，避免每次put都淘汰)
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            final long now = System.currentTimeMillis();
+            cache.values().removeIf(result -> result.expireAt <= now);
+            final int target = maxSize - maxSize / 10;
+            final Iterator<String> iterator = cache.keySet().iterator();
+            while (cache.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Cache-Control是否禁止共享缓存(private、no-store)
+     */
+    private static boolean isPrivate(Collection<String> cacheControls) {
+        for (String cacheControl : cacheControls) {
+            String value = cacheControl.toLowerCase();
+            if (value.contains("private") || value.contains("no-store")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 缓存规则
+     */
+    public static class Rule {
+        private final String prefix;
+        private final long ttlMillis;
+        private final List<String> keyParams;
+
+        private Rule(String prefix, long ttlMillis, List<String> keyParams) {
+            this.prefix = prefix == null ? "" : prefix;
+            this.ttlMillis = ttlMillis;
+            this.keyParams = keyParams == null ? Collections.emptyList() : new ArrayList<>(keyParams);
+        }
+    }
+
+    /**
+     * 缓存的脚本执行结果
+     */
+    public static class CachedResult {
+        /**
+         * 序列化格式标识(格式不一致的二级缓存数据当作不存在)
+         */
+        private static final int Format_Magic = 0x48524332;
+
+        private final int status;
+        private final String contentType;
+        /**
+         * 响应头(不包含Content-Type、Content-Length)
+         */
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final long expireAt;
+
+        private CachedResult(int status, String contentType, Map<String, List<String>> headers, byte[] body, long expireAt) {
+            this.status = status;
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = body;
+            this.expireAt = expireAt;
+        }
+
+        /**
+         * 输出缓存的结果
+         */
+        public void writeTo(HttpServletResponse response) throws IOException {
+            response.setStatus(status);
+            headers.forEach((name, values) -> {
+                for (int i = 0; i < values.size(); i++) {
+                    if (i == 0) {
+                        response.setHeader(name, values.get(i));
+                    } else {
+                        response.addHeader(name, values.get(i));
+                    }
+                }
+            });
+            if (contentType != null) {
+                response.setContentType(contentType);
+            }
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+
+        private byte[] toBytes() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 64);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(Format_Magic);
+                out.writeInt(status);
+                out.writeUTF(contentType == null ? "" : contentType);
+                out.writeInt(headers.size());
+                for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (String value : entry.getValue()) {
+                        out.writeUTF(value);
+                    }
+                }
+                out.writeLong(expireAt);
+                out.writeInt(body.length);
+                out.write(body);
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * @return 格式不一致时返回null
+         */
+        private static CachedResult fromBytes(byte[] bytes) throws IOException {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                if (bytes.length < 4 || in.readInt() != Format_Magic) {
+                    return null;
+                }
+                final int status = in.readInt();
+                final String contentType = in.readUTF();
+                final int headerCount = in.readInt();
+                final Map<String, List<String>> headers = new LinkedHashMap<>(headerCount);
+                for (int i = 0; i < headerCount; i++) {
+                    final String name = in.readUTF();
+                    final int valueCount = in.readInt();
+                    final List<String> values = new ArrayList<>(valueCount);
+                    for (int j = 0; j < valueCount; j++) {
+                        values.add(in.readUTF());
+                    }
+                    headers.put(name, values);
+                }
+                final long expireAt = in.readLong();
+                byte[] body = new byte[in.readInt()];
+                in.readFully(body);
+                return new CachedResult(status, contentType.isEmpty() ? null : contentType, headers, body, expireAt);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.clever.hinny.spring.mvc;
+
+/**
+ * 脚本执行结果的二级缓存(多个节点共享)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 14:30 <br/>
+ */
+public interface ScriptResultRemoteStore {
+    /**
+     * 读取缓存
+     *
+     * @return 不存在返回null
+     */
+    byte[] get(String key);
+
+    /**
+     * 写入缓存
+     */
+    void put(String key, byte[] value, long ttlMillis);
+
+    /**
+     * 使所有节点的缓存失效
+     */
+    void invalidateAll();
+
+    /**
+     * 监听其他节点发出的缓存失效通知
+     */
+    void subscribe(Runnable onInvalidate);
+}
@@ -0,0 +1,193 @@
+package org.clever.hinny.spring.mvc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.clever.hinny.spring.config.FileSystemType;
+import org.clever.hinny.spring.folder.ClassPathScriptIndex;
+import org.clever.hinny.spring.reload.ScriptFileChangeListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 脚本路由索引(启动时扫描所有脚本文件构建的前缀树)
+ * <p>
+ * 请求路径先通过 {@link ScriptPathResolver} 映射成脚本路径，再按路径分段在前缀树中查找，
+ * 不存在对应脚本文件的请求在O(路径长度)内被拒绝，不会再访问文件系统。
+ * 请求路径对应脚本文件本身，或者请求路径的上一级对应脚本文件(最后一段是脚本导出的函数名)都认为匹配。
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 18:16 <br/>
+ */
+@Slf4j
+public class ScriptRouteIndex implements ScriptFileChangeListener {
+    public static final String Script_Suffix = ".js";
+
+    private final ScriptPathResolver scriptPathResolver;
+    private final FileSystemType fileSystemType;
+    /**
+     * 脚本根路径(文件系统绝对路径或者classpath路径)
+     */
+    private final String rootPath;
+    /**
+     * Jar包(classpath)模式下的脚本文件索引
+     */
+    private final ClassPathScriptIndex classPathScriptIndex;
+    private final Node root = new Node();
+
+    /**
+     * @param classPathScriptIndex Jar包(classpath)模式下的脚本文件索引(为null时自动创建，只有Jar模式才会创建)
+     */
+    public ScriptRouteIndex(ScriptPathResolver scriptPathResolver, FileSystemType fileSystemType, String scriptPath, ClassPathScriptIndex classPathScriptIndex) {
+        this.scriptPathResolver = scriptPathResolver;
+        this.fileSystemType = fileSystemType;
+        if (Objects.equals(fileSystemType, FileSystemType.FileSystem)) {
+            this.rootPath = Paths.get(scriptPath).toAbsolutePath().normalize().toString();
+            this.classPathScriptIndex = null;
+        } else {
+            this.classPathScriptIndex = classPathScriptIndex == null ? new ClassPathScriptIndex(scriptPath) : classPathScriptIndex;
+            this.rootPath = this.classPathScriptIndex.getBasePath();
+        }
+    }
+
+    /**
+     * 扫描所有脚本文件构建索引
+     */
+    public void init() {
+        final long startTime = System.currentTimeMillis();
+        int count = 0;
+        if (Objects.equals(fileSystemType, FileSystemType.FileSystem)) {
+            Path root = Paths.get(rootPath);
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> stream = Files.walk(root)) {
+                    Iterator<Path> iterator = stream.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(Script_Suffix)).iterator();
+                    while (iterator.hasNext()) {
+                        addScript(root.relativize(iterator.next()).toString());
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new RuntimeException("扫描脚本文件失败: " + rootPath, e);
+                }
+            }
+        } else {
+            for (String path : classPathScriptIndex.getPaths()) {
+                if (path.endsWith(Script_Suffix)) {
+                    addScript(path);
+                    count++;
+                }
+            }
+        }
+        log.info("#脚本路由索引构建完成 | 脚本数量: {} | 耗时: {}ms", count, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 判断请求是否可能由脚本处理
+     */
+    public boolean match(String requestPath) {
+        String scriptPath = scriptPathResolver.resolve(requestPath);
+        if (scriptPath == null) {
+            return false;
+        }
+        Node parent = null;
+        Node node = root;
+        for (String segment : StringUtils.split(scriptPath, '/')) {
+            if (node == null) {
+                return false;
+            }
+            parent = node;
+            node = node.children.get(segment);
+        }
+        return (node != null && node.script) || (parent != null && parent != root && parent.script);
+    }
+
+    @Override
+    public void onFileChange(File file) {
+        if (!Objects.equals(fileSystemType, FileSystemType.FileSystem)) {
+            return;
+        }
+        Path root = Paths.get(rootPath);
+        Path path = file.toPath().toAbsolutePath().normalize();
+        if (!path.startsWith(root)) {
+            return;
+        }
+        String relative = root.relativize(path).toString();
+        if (Files.isRegularFile(path)) {
+            if (relative.endsWith(Script_Suffix)) {
+                addScript(relative);
+            }
+        } else if (!Files.exists(path)) {
+            removeScript(relative);
+        }
+    }
+
+    /**
+     * 加入脚本文件
+     *
+     * @param scriptFile 脚本文件路径(相对于脚本根路径)
+     */
+    public void addScript(String scriptFile) {
+        Node node = root;
+        for (String segment : toSegments(scriptFile)) {
+            node = node.children.computeIfAbsent(segment, key -> new Node());
+        }
+        node.script = true;
+    }
+
+    /**
+     * 删除脚本文件(或者文件夹)
+     *
+     * @param scriptFile 脚本文件路径(相对于脚本根路径)
+     */
+    public void removeScript(String scriptFile) {
+        String[] segments = toSegments(scriptFile);
+        if (segments.length == 0) {
+            return;
+        }
+        Node parent = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            parent = parent.children.get(segments[i]);
+            if (parent == null) {
+                return;
+            }
+        }
+        String last = segments[segments.length - 1];
+        Node node = parent.children.get(last);
+        if (node == null) {
+            return;
+        }
+        if (scriptFile.endsWith(Script_Suffix)) {
+            node.script = false;
+            if (node.children.isEmpty()) {
+                parent.children.remove(last);
+            }
+        } else {
+            // 删除文件夹
+            node.children.clear();
+            if (!node.script) {
+                parent.children.remove(last);
+            }
+        }
+    }
+
+    /**
+     * 脚本文件路径转换成路径分段(去掉脚本后缀)
+     */
+    private static String[] toSegments(String scriptFile) {
+        scriptFile = StringUtils.replace(scriptFile, "\\", "/");
+        scriptFile = StringUtils.removeEnd(scriptFile, Script_Suffix);
+        return StringUtils.split(scriptFile, '/');
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new ConcurrentHashMap<>();
+        private volatile boolean script = false;
+    }
+}
@@ -0,0 +1,30 @@
+package org.clever.hinny.spring.mybatis;
+
+import org.xml.sax.SAXParseException;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 09:10 <br/>
+ */
+public class MapperErrors {
+    /**
+     * 格式化mapper.xml解析错误(XML语法错误时输出行号列号)
+     */
+    public static String format(Throwable e) {
+        SAXParseException saxParseException = null;
+        if (e instanceof SAXParseException) {
+            saxParseException = (SAXParseException) e;
+        } else if (e.getCause() instanceof SAXParseException) {
+            saxParseException = (SAXParseException) e.getCause();
+        }
+        if (saxParseException == null) {
+            return e.getMessage();
+        }
+        return String.format(
+                "#第%d行，第%d列存在错误: %s",
+                saxParseException.getLineNumber(),
+                saxParseException.getColumnNumber(),
+                saxParseException.getMessage()
+        );
+    }
+}
@@ -0,0 +1,187 @@
+package org.clever.hinny.spring.pool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.spring.config.ScriptEnginePoolConfig;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 引擎池自适应大小
+ * <p>
+ * 定时根据借用等待时间、借用频率、堆内存使用率在配置的范围内调整引擎池的maxTotal/maxIdle/minIdle，
+ * 缩小引擎池时多余的引擎实例在归还或者空闲检测时逐步销毁
+ * <p>
+ * 借用等待时间使用调整周期内的平均值(EngineInstanceStatistics累计值的差)，
+ * 只有引擎池饱和(使用的实例数达到maxTotal或者有线程在等待)时才扩大引擎池
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 15:02 <br/>
+ */
+@Slf4j
+public class AdaptiveEnginePoolSizer {
+    private GenericObjectPool<?> objectPool;
+    private final EngineInstanceStatistics instanceStatistics;
+    private final ScriptEnginePoolConfig.AdaptiveConfig adaptiveConfig;
+    private final int configMaxIdle;
+    private final int configMinIdle;
+    private final int lowerTotal;
+    private final int upperTotal;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 上次调整时的借用次数
+     */
+    private long lastBorrowedCount;
+    /**
+     * 上次调整时的借用等待时间总和(纳秒)
+     */
+    private long lastBorrowWaitNanos;
+    /**
+     * 上次调整时统计了借用等待时间的借用次数
+     */
+    private long lastBorrowWaitCount;
+    /**
+     * 连续空闲(使用的实例数小于maxTotal)的调整周期数
+     */
+    private int idleIntervals;
+
+    public AdaptiveEnginePoolSizer(GenericObjectPool<?> objectPool, EngineInstanceStatistics instanceStatistics, ScriptEnginePoolConfig scriptEnginePoolConfig) {
+        this.objectPool = objectPool;
+        this.instanceStatistics = instanceStatistics;
+        this.adaptiveConfig = scriptEnginePoolConfig.getAdaptive();
+        this.configMaxIdle = scriptEnginePoolConfig.getMaxIdle();
+        this.configMinIdle = scriptEnginePoolConfig.getMinIdle();
+        this.upperTotal = adaptiveConfig.getMaxTotal() > 0 ? adaptiveConfig.getMaxTotal() : scriptEnginePoolConfig.getMaxTotal();
+        if (upperTotal <= 0) {
+            throw new IllegalArgumentException("引擎池自适应大小需要maxTotal上限，请配置 engine-instance-pool.adaptive.max-total 或者 engine-instance-pool.max-total(大于0)");
+        }
+        this.lowerTotal = Math.max(1, Math.min(adaptiveConfig.getMinTotal(), upperTotal));
+        this.lastBorrowedCount = objectPool.getBorrowedCount();
+        this.lastBorrowWaitNanos = instanceStatistics.getBorrowWaitNanos();
+        this.lastBorrowWaitCount = instanceStatistics.getBorrowWaitCount();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engine-pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        final long interval = adaptiveConfig.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                adjust();
+            } catch (Throwable e) {
+                log.warn("#调整引擎池大小失败", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("#已启用引擎池自适应大小 | maxTotal范围: [{}, {}]", lowerTotal, upperTotal);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 替换调整大小的引擎池(蓝绿切换引擎池时调用)
+     */
+    public synchronized void setObjectPool(GenericObjectPool<?> objectPool) {
+        this.objectPool = objectPool;
+        this.lastBorrowedCount = objectPool.getBorrowedCount();
+        this.lastBorrowWaitNanos = instanceStatistics.getBorrowWaitNanos();
+        this.lastBorrowWaitCount = instanceStatistics.getBorrowWaitCount();
+        this.idleIntervals = 0;
+    }
+
+    /**
+     * 计算并调整引擎池大小
+     */
+    protected synchronized void adjust() {
+        if (objectPool.isClosed()) {
+            return;
+        }
+        final int maxTotal = objectPool.getMaxTotal() < 0 ? upperTotal : objectPool.getMaxTotal();
+        final int step = Math.max(1, adaptiveConfig.getStep());
+        final long borrowedCount = objectPool.getBorrowedCount();
+        final long borrowed = borrowedCount - lastBorrowedCount;
+        lastBorrowedCount = borrowedCount;
+        // 调整周期内的平均借用等待时间
+        final long borrowWaitNanos = instanceStatistics.getBorrowWaitNanos();
+        final long borrowWaitCount = instanceStatistics.getBorrowWaitCount();
+        final long intervalWaitCount = borrowWaitCount - lastBorrowWaitCount;
+        final double meanBorrowWait = intervalWaitCount <= 0 ? 0 : (borrowWaitNanos - lastBorrowWaitNanos) / 1_000_000.0 / intervalWaitCount;
+        lastBorrowWaitNanos = borrowWaitNanos;
+        lastBorrowWaitCount = borrowWaitCount;
+        final int numActive = objectPool.getNumActive();
+        final int numWaiters = objectPool.getNumWaiters();
+        final boolean saturated = numActive >= maxTotal || numWaiters > 0;
+        final double heapUsage = getOldGenUsageAfterGc();
+        int newMaxTotal = maxTotal;
+        if (heapUsage >= adaptiveConfig.getHeapUsageThreshold()) {
+            // 堆内存压力大，缩小引擎池
+            newMaxTotal = maxTotal - step;
+            idleIntervals = 0;
+        } else if (saturated && (numWaiters > 0 || meanBorrowWait > adaptiveConfig.getTargetBorrowWait().toMillis())) {
+            // 引擎池饱和并且借用需要等待，扩大引擎池
+            newMaxTotal = maxTotal + step;
+            idleIntervals = 0;
+        } else if (numActive + step <= maxTotal) {
+            idleIntervals++;
+            if (idleIntervals >= adaptiveConfig.getShrinkAfterIntervals()) {
+                newMaxTotal = maxTotal - step;
+                idleIntervals = 0;
+            }
+        } else {
+            idleIntervals = 0;
+        }
+        newMaxTotal = Math.max(lowerTotal, Math.min(upperTotal, newMaxTotal));
+        if (newMaxTotal == maxTotal) {
+            return;
+        }
+        final int newMaxIdle = Math.min(configMaxIdle, newMaxTotal);
+        objectPool.setMaxTotal(newMaxTotal);
+        objectPool.setMaxIdle(newMaxIdle);
+        objectPool.setMinIdle(Math.min(configMinIdle, newMaxIdle));
+        log.info(
+                "#调整引擎池大小 | maxTotal: {} -> {} | maxIdle: {} | active: {} | waiters: {} | borrowed: {} | meanBorrowWait: {}ms | heapUsage: {}",
+                maxTotal, newMaxTotal, newMaxIdle, numActive, numWaiters, borrowed, String.format("%.2f", meanBorrowWait), String.format("%.2f", heapUsage)
+        );
+    }
+
+    /**
+     * 最近一次GC后老年代的使用率(不包含还未回收的垃圾，不会随GC锯齿波动)
+     * <p>
+     * 使用支持collectionUsage的最大的堆内存池(G1 Old Gen、PS Old Gen、Tenured Gen、ZHeap等)
+     */
+    private static double getOldGenUsageAfterGc() {
+        MemoryPoolMXBean oldGen = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            if (oldGen == null || getMax(pool.getUsage()) > getMax(oldGen.getUsage())) {
+                oldGen = pool;
+            }
+        }
+        if (oldGen == null) {
+            return 0;
+        }
+        MemoryUsage usage = oldGen.getCollectionUsage();
+        if (usage == null) {
+            return 0;
+        }
+        long max = getMax(usage);
+        return max <= 0 ? 0 : (double) usage.getUsed() / max;
+    }
+
+    private static long getMax(MemoryUsage usage) {
+        return usage.getMax() > 0 ? usage.getMax() : usage.getCommitted();
+    }
+}
@@ -0,0 +1,44 @@
+package org.clever.hinny.spring.pool;
+
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+/**
+ * 脚本引擎实例生命周期监听器(由 {@link ListenablePooledObjectFactory} 回调)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 10:20 <br/>
+ */
+public interface EngineInstanceListener {
+    /**
+     * 引擎池创建完成
+     */
+    default void onPoolCreated(EngineInstancePool<Context, Value> pool) {
+    }
+
+    /**
+     * 引擎实例创建完成
+     */
+    default void onCreate(ScriptEngineInstance<Context, Value> instance) throws Exception {
+    }
+
+    /**
+     * 引擎实例被借出(在借用线程中执行)，抛出异常会导致该实例被销毁
+     */
+    default void onActivate(ScriptEngineInstance<Context, Value> instance) throws Exception {
+    }
+
+    /**
+     * 引擎实例被归还(在归还线程中执行)，抛出异常会导致该实例被销毁
+     */
+    default void onPassivate(ScriptEngineInstance<Context, Value> instance) throws Exception {
+    }
+
+    /**
+     * 引擎实例被销毁
+     */
+    default void onDestroy(ScriptEngineInstance<Context, Value> instance) {
+    }
+}
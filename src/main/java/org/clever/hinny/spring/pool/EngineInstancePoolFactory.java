@@ -0,0 +1,66 @@
+package org.clever.hinny.spring.pool;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.api.pool.GenericEngineInstancePool;
+import org.clever.hinny.spring.config.ScriptEnginePoolConfig;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 根据引擎池配置创建脚本引擎池(蓝绿切换时需要创建新的引擎池)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 23:05 <br/>
+ */
+public class EngineInstancePoolFactory {
+    private final ScriptEnginePoolConfig scriptEnginePoolConfig;
+    private final BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> graalEngineFactory;
+    private final List<EngineInstanceListener> engineInstanceListeners;
+
+    public EngineInstancePoolFactory(
+            ScriptEnginePoolConfig scriptEnginePoolConfig,
+            BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> graalEngineFactory,
+            List<EngineInstanceListener> engineInstanceListeners) {
+        this.scriptEnginePoolConfig = scriptEnginePoolConfig;
+        this.graalEngineFactory = graalEngineFactory;
+        this.engineInstanceListeners = engineInstanceListeners == null ? new ArrayList<>() : new ArrayList<>(engineInstanceListeners);
+    }
+
+    /**
+     * 创建一个新的引擎池
+     */
+    public EngineInstancePool<Context, Value> create() {
+        // 创建对象池配置
+        GenericObjectPoolConfig<ScriptEngineInstance<Context, Value>> config = new GenericObjectPoolConfig<>();
+        config.setLifo(scriptEnginePoolConfig.isLifo());
+        config.setFairness(scriptEnginePoolConfig.isFairness());
+        config.setMaxIdle(scriptEnginePoolConfig.getMaxIdle());
+        config.setMinIdle(scriptEnginePoolConfig.getMinIdle());
+        config.setMaxTotal(scriptEnginePoolConfig.getMaxTotal());
+        config.setMaxWaitMillis(scriptEnginePoolConfig.getMaxWaitMillis());
+        config.setBlockWhenExhausted(scriptEnginePoolConfig.isBlockWhenExhausted());
+        config.setTestOnCreate(scriptEnginePoolConfig.isTestOnCreate());
+        config.setTestOnBorrow(scriptEnginePoolConfig.isTestOnBorrow());
+        config.setTestOnReturn(scriptEnginePoolConfig.isTestOnReturn());
+        config.setTestWhileIdle(scriptEnginePoolConfig.isTestWhileIdle());
+        config.setTimeBetweenEvictionRunsMillis(scriptEnginePoolConfig.getTimeBetweenEvictionRunsMillis());
+        config.setNumTestsPerEvictionRun(scriptEnginePoolConfig.getNumTestsPerEvictionRun());
+        config.setMinEvictableIdleTimeMillis(scriptEnginePoolConfig.getMinEvictableIdleTimeMillis());
+        config.setSoftMinEvictableIdleTimeMillis(scriptEnginePoolConfig.getSoftMinEvictableIdleTimeMillis());
+        config.setEvictionPolicyClassName(scriptEnginePoolConfig.getEvictionPolicyClassName());
+        config.setEvictorShutdownTimeoutMillis(scriptEnginePoolConfig.getEvictorShutdownTimeoutMillis());
+        config.setJmxEnabled(scriptEnginePoolConfig.isJmxEnabled());
+        config.setJmxNamePrefix(scriptEnginePoolConfig.getJmxNamePrefix());
+        config.setJmxNameBase(scriptEnginePoolConfig.getJmxNameBase());
+        ListenablePooledObjectFactory pooledObjectFactory = new ListenablePooledObjectFactory(graalEngineFactory, engineInstanceListeners);
+        EngineInstancePool<Context, Value> pool = new GenericEngineInstancePool<>(pooledObjectFactory, config);
+        pooledObjectFactory.poolCreated(pool);
+        return pool;
+    }
+}
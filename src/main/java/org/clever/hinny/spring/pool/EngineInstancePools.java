@@ -0,0 +1,23 @@
+package org.clever.hinny.spring.pool;
+
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.api.pool.EngineInstancePool;
+
+/**
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 14:20 <br/>
+ */
+public class EngineInstancePools {
+    /**
+     * 获取引擎池底层的 GenericObjectPool，不支持时返回null(SwitchableEngineInstancePool返回当前引擎池的GenericObjectPool)
+     */
+    public static GenericObjectPool<?> getObjectPool(EngineInstancePool<?, ?> pool) {
+        if (pool instanceof SwitchableEngineInstancePool) {
+            return getObjectPool(((SwitchableEngineInstancePool) pool).getTarget());
+        }
+        if (pool instanceof GenericObjectPool) {
+            return (GenericObjectPool<?>) pool;
+        }
+        return null;
+    }
+}
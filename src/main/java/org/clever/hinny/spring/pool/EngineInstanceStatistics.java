@@ -0,0 +1,170 @@
+package org.clever.hinny.spring.pool;
+
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 引擎实例统计(创建/销毁数量、使用中的实例、实例存活时间、借用等待时间)
+ * <p>
+ * 借用等待时间: 从 {@link #beginBorrow()} 到引擎实例被借出(在同一个线程中)的时间
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 15:40 <br/>
+ */
+public class EngineInstanceStatistics implements EngineInstanceListener {
+    private static final ThreadLocal<Long> Borrow_Start_Time = new ThreadLocal<>();
+
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder borrowedCount = new LongAdder();
+    private final LongAdder borrowWaitNanos = new LongAdder();
+    /**
+     * 统计了借用等待时间的借用次数(调用了beginBorrow的借用)
+     */
+    private final LongAdder borrowWaitCount = new LongAdder();
+    /**
+     * 存活的引擎实例 --> 创建时间
+     */
+    private final Map<ScriptEngineInstance<Context, Value>, Long> liveInstances = new ConcurrentHashMap<>();
+    /**
+     * 使用中的引擎实例
+     */
+    private final Set<ScriptEngineInstance<Context, Value>> activeInstances = ConcurrentHashMap.newKeySet();
+    /**
+     * 借用等待时间监听(纳秒)
+     */
+    private volatile LongConsumer borrowWaitListener;
+
+    /**
+     * 开始借用引擎实例(当前线程)
+     */
+    public static void beginBorrow() {
+        Borrow_Start_Time.set(System.nanoTime());
+    }
+
+    /**
+     * 结束借用引擎实例(当前线程)
+     */
+    public static void endBorrow() {
+        Borrow_Start_Time.remove();
+    }
+
+    @Override
+    public void onCreate(ScriptEngineInstance<Context, Value> instance) {
+        createdCount.increment();
+        liveInstances.put(instance, System.currentTimeMillis());
+    }
+
+    @Override
+    public void onActivate(ScriptEngineInstance<Context, Value> instance) {
+        activeInstances.add(instance);
+        borrowedCount.increment();
+        Long startTime = Borrow_Start_Time.get();
+        if (startTime == null) {
+            return;
+        }
+        Borrow_Start_Time.remove();
+        long waitNanos = System.nanoTime() - startTime;
+        borrowWaitNanos.add(waitNanos);
+        borrowWaitCount.increment();
+        LongConsumer listener = borrowWaitListener;
+        if (listener != null) {
+            listener.accept(waitNanos);
+        }
+    }
+
+    @Override
+    public void onPassivate(ScriptEngineInstance<Context, Value> instance) {
+        activeInstances.remove(instance);
+    }
+
+    @Override
+    public void onDestroy(ScriptEngineInstance<Context, Value> instance) {
+        destroyedCount.increment();
+        activeInstances.remove(instance);
+        liveInstances.remove(instance);
+    }
+
+    public void setBorrowWaitListener(LongConsumer borrowWaitListener) {
+        this.borrowWaitListener = borrowWaitListener;
+    }
+
+    public long getCreatedCount() {
+        return createdCount.sum();
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount.sum();
+    }
+
+    public long getBorrowedCount() {
+        return borrowedCount.sum();
+    }
+
+    public int getNumActive() {
+        return activeInstances.size();
+    }
+
+    public int getNumLive() {
+        return liveInstances.size();
+    }
+
+    public int getNumIdle() {
+        return Math.max(0, liveInstances.size() - activeInstances.size());
+    }
+
+    /**
+     * 借用等待时间总和(纳秒，累计值)
+     */
+    public long getBorrowWaitNanos() {
+        return borrowWaitNanos.sum();
+    }
+
+    /**
+     * 统计了借用等待时间的借用次数(累计值)
+     */
+    public long getBorrowWaitCount() {
+        return borrowWaitCount.sum();
+    }
+
+    /**
+     * 平均借用等待时间(毫秒)
+     */
+    public double getMeanBorrowWaitMillis() {
+        long count = borrowWaitCount.sum();
+        return count <= 0 ? 0 : borrowWaitNanos.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * 存活时间最长的引擎实例的存活时间(毫秒)
+     */
+    public long getMaxInstanceAgeMillis() {
+        final long now = System.currentTimeMillis();
+        long max = 0;
+        for (Long createTime : liveInstances.values()) {
+            max = Math.max(max, now - createTime);
+        }
+        return max;
+    }
+
+    /**
+     * 引擎实例的平均存活时间(毫秒)
+     */
+    public double getMeanInstanceAgeMillis() {
+        final long now = System.currentTimeMillis();
+        long total = 0;
+        int count = 0;
+        for (Long createTime : liveInstances.values()) {
+            total += now - createTime;
+            count++;
+        }
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
@@ -0,0 +1,111 @@
+package org.clever.hinny.spring.pool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.spring.config.ScriptEnginePoolConfig;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 引擎实例预热
+ * <p>
+ * 1.每个新创建的引擎实例都会预先加载配置的脚本 <br/>
+ * 2.启动时(以及脚本变化清空引擎池后)并行的预先创建引擎实例 <br/>
+ * 注意: 预热只调用require加载脚本(解析并执行模块顶层代码)，不会调用脚本导出的函数，
+ * 所以函数体第一次执行时的开销(以及GraalVM对热点代码的编译)仍然发生在第一批请求中 <br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 14:26 <br/>
+ */
+@Slf4j
+public class EngineInstanceWarmUp implements EngineInstanceListener {
+    private final ScriptEnginePoolConfig.WarmUpConfig warmUpConfig;
+    private final int instanceCount;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public EngineInstanceWarmUp(ScriptEnginePoolConfig scriptEnginePoolConfig) {
+        this.warmUpConfig = scriptEnginePoolConfig.getWarmUp();
+        int count = warmUpConfig.getInstanceCount() > 0 ? warmUpConfig.getInstanceCount() : scriptEnginePoolConfig.getMinIdle();
+        // maxIdle小于0表示不限制空闲实例数
+        this.instanceCount = scriptEnginePoolConfig.getMaxIdle() < 0 ? count : Math.min(count, scriptEnginePoolConfig.getMaxIdle());
+    }
+
+    @Override
+    public void onCreate(ScriptEngineInstance<Context, Value> instance) {
+        for (String script : warmUpConfig.getScripts()) {
+            try {
+                instance.require(script);
+            } catch (Exception e) {
+                log.warn("#预热脚本加载失败 | script={}", script, e);
+            }
+        }
+    }
+
+    /**
+     * 并行的预先创建引擎实例(阻塞直到完成或者超时)
+     */
+    public void warmUp(EngineInstancePool<Context, Value> pool) {
+        final GenericObjectPool<?> objectPool = EngineInstancePools.getObjectPool(pool);
+        if (objectPool == null) {
+            log.warn("#当前引擎池[{}]不支持预先创建引擎实例", pool.getClass().getName());
+            return;
+        }
+        final int count = instanceCount - objectPool.getNumIdle();
+        if (count <= 0 || !running.compareAndSet(false, true)) {
+            return;
+        }
+        final long startTime = System.currentTimeMillis();
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(warmUpConfig.getParallelism(), count)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "engine-warm-up-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> {
+                    objectPool.addObject();
+                    return null;
+                }));
+            }
+            final long deadline = startTime + warmUpConfig.getTimeout().toMillis();
+            for (Future<?> future : futures) {
+                try {
+                    future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    log.warn("#引擎实例预热超时 | timeout={}", warmUpConfig.getTimeout());
+                    break;
+                } catch (ExecutionException e) {
+                    log.warn("#引擎实例预热失败", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            running.set(false);
+        }
+        log.info("#引擎实例预热完成 | 空闲实例数: {} | 耗时: {}ms", objectPool.getNumIdle(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 在后台线程中预先创建引擎实例
+     */
+    public void warmUpAsync(EngineInstancePool<Context, Value> pool) {
+        Thread thread = new Thread(() -> warmUp(pool), "engine-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,182 @@
+package org.clever.hinny.spring.pool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 限制脚本执行时间
+ * <p>
+ * 引擎实例被借出时记录“线程 --> 引擎实例”，超时后使用 Context.close(true) 取消脚本执行，
+ * 被取消的引擎实例归还时直接销毁(不会回到引擎池)，然后异步的创建新的引擎实例补充到引擎池<br/>
+ * 取消和归还(onPassivate)都在引擎实例上加锁，已经归还的引擎实例不会被取消
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 20:45 <br/>
+ */
+@Slf4j
+public class EngineInstanceWatchdog implements EngineInstanceListener {
+    private final ScheduledExecutorService scheduler;
+    /**
+     * 线程 --> 线程正在使用的引擎实例
+     */
+    private final Map<Thread, ScriptEngineInstance<Context, Value>> borrowedInstances = new ConcurrentHashMap<>();
+    /**
+     * 已被取消的引擎实例
+     */
+    private final Set<ScriptEngineInstance<Context, Value>> cancelledInstances = ConcurrentHashMap.newKeySet();
+    private final LongAdder cancelledCount = new LongAdder();
+    private volatile GenericObjectPool<?> objectPool;
+
+    public EngineInstanceWatchdog() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "engine-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 开始监控当前线程的脚本执行时间
+     *
+     * @param timeoutMillis 超时时间(毫秒)，小于等于0表示不限制
+     * @return 脚本执行完成后必须调用 {@link Ticket#close()}，不限制时返回null
+     */
+    public Ticket watch(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return null;
+        }
+        final Ticket ticket = new Ticket(Thread.currentThread(), timeoutMillis);
+        ticket.future = scheduler.schedule(() -> cancel(ticket), timeoutMillis, TimeUnit.MILLISECONDS);
+        return ticket;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void onPoolCreated(EngineInstancePool<Context, Value> pool) {
+        objectPool = EngineInstancePools.getObjectPool(pool);
+    }
+
+    @Override
+    public void onActivate(ScriptEngineInstance<Context, Value> instance) {
+        borrowedInstances.put(Thread.currentThread(), instance);
+    }
+
+    @Override
+    public void onPassivate(ScriptEngineInstance<Context, Value> instance) {
+        synchronized (instance) {
+            borrowedInstances.remove(Thread.currentThread(), instance);
+            if (cancelledInstances.contains(instance)) {
+                // 抛出异常使引擎池销毁当前引擎实例
+                throw new IllegalStateException("引擎实例执行脚本超时已被取消");
+            }
+        }
+    }
+
+    @Override
+    public void onDestroy(ScriptEngineInstance<Context, Value> instance) {
+        borrowedInstances.values().remove(instance);
+        if (cancelledInstances.remove(instance)) {
+            scheduler.execute(this::replenish);
+        }
+    }
+
+    /**
+     * 立即取消线程正在执行的脚本(如: 异步请求超时)，调用者需要保证线程仍在执行同一个请求
+     *
+     * @return 线程没有使用引擎实例时返回false
+     */
+    public boolean cancel(Thread thread) {
+        final ScriptEngineInstance<Context, Value> instance = borrowedInstances.get(thread);
+        if (instance == null) {
+            return false;
+        }
+        synchronized (instance) {
+            // 加锁后再次检查，引擎实例已经归还(onPassivate)时不能关闭
+            if (borrowedInstances.get(thread) != instance) {
+                return false;
+            }
+            cancelledInstances.add(instance);
+            cancel(instance, thread);
+        }
+        return true;
+    }
+
+    private void cancel(Ticket ticket) {
+        synchronized (ticket) {
+            if (ticket.closed) {
+                return;
+            }
+            if (borrowedInstances.containsKey(ticket.thread)) {
+                log.warn("#脚本执行超时 | thread={} | timeout={}ms", ticket.thread.getName(), ticket.timeoutMillis);
+                cancel(ticket.thread);
+            }
+        }
+    }
+
+    private void cancel(ScriptEngineInstance<Context, Value> instance, Thread thread) {
+        cancelledCount.increment();
+        log.warn("#取消脚本执行 | thread={}", thread.getName());
+        try {
+            instance.getContext().getEngine().close(true);
+        } catch (Exception e) {
+            log.warn("#取消脚本执行失败", e);
+        }
+    }
+
+    /**
+     * 补充被销毁的引擎实例
+     */
+    private void replenish() {
+        GenericObjectPool<?> pool = objectPool;
+        if (pool == null || pool.isClosed()) {
+            return;
+        }
+        if (pool.getNumIdle() >= pool.getMaxIdle() || (pool.getMaxTotal() >= 0 && pool.getNumActive() + pool.getNumIdle() >= pool.getMaxTotal())) {
+            return;
+        }
+        try {
+            pool.addObject();
+        } catch (Exception e) {
+            log.warn("#补充引擎实例失败", e);
+        }
+    }
+
+    public static class Ticket implements AutoCloseable {
+        private final Thread thread;
+        private final long timeoutMillis;
+        private volatile ScheduledFuture<?> future;
+        private boolean closed = false;
+
+        private Ticket(Thread thread, long timeoutMillis) {
+            this.thread = thread;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+            }
+            ScheduledFuture<?> scheduledFuture = future;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+        }
+    }
+}
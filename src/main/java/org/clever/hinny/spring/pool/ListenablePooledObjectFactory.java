@@ -0,0 +1,102 @@
+package org.clever.hinny.spring.pool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 包装脚本引擎实例的PooledObjectFactory，在引擎实例的生命周期中回调 {@link EngineInstanceListener}
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 10:26 <br/>
+ */
+@Slf4j
+public class ListenablePooledObjectFactory extends BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> {
+    private final BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> delegate;
+    private final List<EngineInstanceListener> listeners;
+
+    public ListenablePooledObjectFactory(BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> delegate, List<EngineInstanceListener> listeners) {
+        this.delegate = delegate;
+        this.listeners = listeners == null ? new ArrayList<>() : new ArrayList<>(listeners);
+    }
+
+    public BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 通知所有监听器引擎池已创建
+     */
+    public void poolCreated(EngineInstancePool<Context, Value> pool) {
+        for (EngineInstanceListener listener : listeners) {
+            listener.onPoolCreated(pool);
+        }
+    }
+
+    @Override
+    public ScriptEngineInstance<Context, Value> create() throws Exception {
+        return delegate.create();
+    }
+
+    @Override
+    public PooledObject<ScriptEngineInstance<Context, Value>> wrap(ScriptEngineInstance<Context, Value> instance) {
+        return delegate.wrap(instance);
+    }
+
+    @Override
+    public PooledObject<ScriptEngineInstance<Context, Value>> makeObject() throws Exception {
+        PooledObject<ScriptEngineInstance<Context, Value>> pooledObject = delegate.makeObject();
+        try {
+            for (EngineInstanceListener listener : listeners) {
+                listener.onCreate(pooledObject.getObject());
+            }
+        } catch (Exception e) {
+            destroyObject(pooledObject);
+            throw e;
+        }
+        return pooledObject;
+    }
+
+    @Override
+    public void destroyObject(PooledObject<ScriptEngineInstance<Context, Value>> pooledObject) throws Exception {
+        try {
+            delegate.destroyObject(pooledObject);
+        } finally {
+            for (EngineInstanceListener listener : listeners) {
+                try {
+                    listener.onDestroy(pooledObject.getObject());
+                } catch (Exception e) {
+                    log.warn("EngineInstanceListener.onDestroy执行失败", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<ScriptEngineInstance<Context, Value>> pooledObject) {
+        return delegate.validateObject(pooledObject);
+    }
+
+    @Override
+    public void activateObject(PooledObject<ScriptEngineInstance<Context, Value>> pooledObject) throws Exception {
+        delegate.activateObject(pooledObject);
+        for (EngineInstanceListener listener : listeners) {
+            listener.onActivate(pooledObject.getObject());
+        }
+    }
+
+    @Override
+    public void passivateObject(PooledObject<ScriptEngineInstance<Context, Value>> pooledObject) throws Exception {
+        delegate.passivateObject(pooledObject);
+        for (EngineInstanceListener listener : listeners) {
+            listener.onPassivate(pooledObject.getObject());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.clever.hinny.spring.pool;
+
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+/**
+ * 在每个新创建的引擎实例中注册一个脚本全局对象
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 11:02 <br/>
+ */
+public class ScriptGlobalBinding implements EngineInstanceListener {
+    private static final String Language_Id = "js";
+
+    /**
+     * 脚本中的全局变量名
+     */
+    private final String name;
+    /**
+     * 全局对象
+     */
+    private final Object value;
+
+    public ScriptGlobalBinding(String name, Object value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    @Override
+    public void onCreate(ScriptEngineInstance<Context, Value> instance) {
+        instance.getContext().getEngine().getBindings(Language_Id).putMember(name, value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,280 @@
+package org.clever.hinny.spring.pool;
+
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectFactory;
+import org.apache.commons.pool2.impl.*;
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.api.pool.GenericEngineInstancePool;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 可以切换的引擎池(蓝绿切换时作为engineInstancePool Bean，所有使用引擎池的对象都持有这个对象)
+ * <p>
+ * 借出、归还引擎实例等操作转发给当前的引擎池(target)，切换后新借出的引擎实例来自新的引擎池；
+ * 切换前借出的引擎实例仍然归还给原来的引擎池，所以原来的引擎池可以在所有引擎实例归还后关闭
+ * <p>
+ * 父类只用于实现EngineInstancePool接口，不会创建引擎实例；GenericObjectPool所有可以重写的public方法都转发给当前的引擎池。
+ * BaseGenericObjectPool中的final方法(getMaxTotal/setMaxTotal、getBorrowedCount、getMeanBorrowWaitTimeMillis等)无法转发，
+ * 返回的是父类(空引擎池)的值，需要通过 {@link #getTarget()} 或者 {@link EngineInstancePools#getObjectPool(EngineInstancePool)} 访问当前的引擎池
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 21:10 <br/>
+ */
+public class SwitchableEngineInstancePool extends GenericEngineInstancePool<Context, Value> {
+    /**
+     * 借出的引擎实例 --> 借出引擎实例的引擎池
+     */
+    private final Map<ScriptEngineInstance<Context, Value>, EngineInstancePool<Context, Value>> borrowedFrom = Collections.synchronizedMap(new IdentityHashMap<>());
+    /**
+     * 当前的引擎池
+     */
+    private volatile EngineInstancePool<Context, Value> target;
+
+    /**
+     * @param target 当前的引擎池(必须是GenericObjectPool)
+     */
+    public SwitchableEngineInstancePool(EngineInstancePool<Context, Value> target) {
+        super(new UnsupportedFactory(), newConfig());
+        this.target = checkTarget(target);
+    }
+
+    /**
+     * 切换到新的引擎池
+     *
+     * @return 原来的引擎池
+     */
+    public EngineInstancePool<Context, Value> switchTo(EngineInstancePool<Context, Value> newTarget) {
+        final EngineInstancePool<Context, Value> oldTarget = target;
+        target = checkTarget(newTarget);
+        return oldTarget;
+    }
+
+    /**
+     * 当前的引擎池
+     */
+    public EngineInstancePool<Context, Value> getTarget() {
+        return target;
+    }
+
+    @Override
+    public ScriptEngineInstance<Context, Value> borrowObject() throws Exception {
+        final EngineInstancePool<Context, Value> pool = target;
+        final ScriptEngineInstance<Context, Value> instance = toObjectPool(pool).borrowObject();
+        borrowedFrom.put(instance, pool);
+        return instance;
+    }
+
+    @Override
+    public ScriptEngineInstance<Context, Value> borrowObject(long borrowMaxWaitMillis) throws Exception {
+        final EngineInstancePool<Context, Value> pool = target;
+        final ScriptEngineInstance<Context, Value> instance = toObjectPool(pool).borrowObject(borrowMaxWaitMillis);
+        borrowedFrom.put(instance, pool);
+        return instance;
+    }
+
+    @Override
+    public void returnObject(ScriptEngineInstance<Context, Value> instance) {
+        toObjectPool(getBorrowedFrom(instance)).returnObject(instance);
+    }
+
+    @Override
+    public void invalidateObject(ScriptEngineInstance<Context, Value> instance) throws Exception {
+        toObjectPool(getBorrowedFrom(instance)).invalidateObject(instance);
+    }
+
+    @Override
+    public void addObject() throws Exception {
+        toObjectPool(target).addObject();
+    }
+
+    @Override
+    public void clear() {
+        toObjectPool(target).clear();
+    }
+
+    @Override
+    public void close() {
+        toObjectPool(target).close();
+        super.close();
+    }
+
+    @Override
+    public void evict() throws Exception {
+        toObjectPool(target).evict();
+    }
+
+    @Override
+    public void preparePool() throws Exception {
+        toObjectPool(target).preparePool();
+    }
+
+    @Override
+    public void use(ScriptEngineInstance<Context, Value> instance) {
+        final EngineInstancePool<Context, Value> pool = borrowedFrom.get(instance);
+        toObjectPool(pool == null ? target : pool).use(instance);
+    }
+
+    @Override
+    public int getNumActive() {
+        return toObjectPool(target).getNumActive();
+    }
+
+    @Override
+    public int getNumIdle() {
+        return toObjectPool(target).getNumIdle();
+    }
+
+    @Override
+    public int getNumWaiters() {
+        return toObjectPool(target).getNumWaiters();
+    }
+
+    @Override
+    public Set<DefaultPooledObjectInfo> listAllObjects() {
+        return toObjectPool(target).listAllObjects();
+    }
+
+    @Override
+    public PooledObjectFactory<ScriptEngineInstance<Context, Value>> getFactory() {
+        return toObjectPool(target).getFactory();
+    }
+
+    @Override
+    public String getFactoryType() {
+        return toObjectPool(target).getFactoryType();
+    }
+
+    // 父类构造函数会调用以下方法初始化配置(此时target为null)
+
+    @Override
+    public void setConfig(GenericObjectPoolConfig<ScriptEngineInstance<Context, Value>> config) {
+        if (target == null) {
+            super.setConfig(config);
+            return;
+        }
+        toObjectPool(target).setConfig(config);
+    }
+
+    @Override
+    public int getMaxIdle() {
+        return target == null ? super.getMaxIdle() : toObjectPool(target).getMaxIdle();
+    }
+
+    @Override
+    public void setMaxIdle(int maxIdle) {
+        if (target == null) {
+            super.setMaxIdle(maxIdle);
+            return;
+        }
+        toObjectPool(target).setMaxIdle(maxIdle);
+    }
+
+    @Override
+    public int getMinIdle() {
+        return target == null ? super.getMinIdle() : toObjectPool(target).getMinIdle();
+    }
+
+    @Override
+    public void setMinIdle(int minIdle) {
+        if (target == null) {
+            super.setMinIdle(minIdle);
+            return;
+        }
+        toObjectPool(target).setMinIdle(minIdle);
+    }
+
+    @Override
+    public EvictionPolicy<ScriptEngineInstance<Context, Value>> getEvictionPolicy() {
+        return target == null ? super.getEvictionPolicy() : toObjectPool(target).getEvictionPolicy();
+    }
+
+    @Override
+    public void setEvictionPolicy(EvictionPolicy<ScriptEngineInstance<Context, Value>> evictionPolicy) {
+        if (target == null) {
+            super.setEvictionPolicy(evictionPolicy);
+            return;
+        }
+        toObjectPool(target).setEvictionPolicy(evictionPolicy);
+    }
+
+    @Override
+    public void setAbandonedConfig(AbandonedConfig abandonedConfig) {
+        if (target == null) {
+            super.setAbandonedConfig(abandonedConfig);
+            return;
+        }
+        toObjectPool(target).setAbandonedConfig(abandonedConfig);
+    }
+
+    @Override
+    public boolean isAbandonedConfig() {
+        return target == null ? super.isAbandonedConfig() : toObjectPool(target).isAbandonedConfig();
+    }
+
+    @Override
+    public boolean getLogAbandoned() {
+        return target == null ? super.getLogAbandoned() : toObjectPool(target).getLogAbandoned();
+    }
+
+    @Override
+    public boolean getRemoveAbandonedOnBorrow() {
+        return target == null ? super.getRemoveAbandonedOnBorrow() : toObjectPool(target).getRemoveAbandonedOnBorrow();
+    }
+
+    @Override
+    public boolean getRemoveAbandonedOnMaintenance() {
+        return target == null ? super.getRemoveAbandonedOnMaintenance() : toObjectPool(target).getRemoveAbandonedOnMaintenance();
+    }
+
+    @Override
+    public int getRemoveAbandonedTimeout() {
+        return target == null ? super.getRemoveAbandonedTimeout() : toObjectPool(target).getRemoveAbandonedTimeout();
+    }
+
+    private EngineInstancePool<Context, Value> getBorrowedFrom(ScriptEngineInstance<Context, Value> instance) {
+        final EngineInstancePool<Context, Value> pool = borrowedFrom.remove(instance);
+        return pool == null ? target : pool;
+    }
+
+    private static EngineInstancePool<Context, Value> checkTarget(EngineInstancePool<Context, Value> pool) {
+        if (pool instanceof SwitchableEngineInstancePool || EngineInstancePools.getObjectPool(pool) == null) {
+            throw new IllegalArgumentException("不支持切换的引擎池: " + pool.getClass().getName());
+        }
+        return pool;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GenericObjectPool<ScriptEngineInstance<Context, Value>> toObjectPool(EngineInstancePool<Context, Value> pool) {
+        return (GenericObjectPool<ScriptEngineInstance<Context, Value>>) EngineInstancePools.getObjectPool(pool);
+    }
+
+    private static GenericObjectPoolConfig<ScriptEngineInstance<Context, Value>> newConfig() {
+        GenericObjectPoolConfig<ScriptEngineInstance<Context, Value>> config = new GenericObjectPoolConfig<>();
+        config.setMinIdle(0);
+        config.setJmxEnabled(false);
+        return config;
+    }
+
+    /**
+     * 父类不创建引擎实例
+     */
+    private static class UnsupportedFactory extends BasePooledObjectFactory<ScriptEngineInstance<Context, Value>> {
+        @Override
+        public ScriptEngineInstance<Context, Value> create() {
+            throw new UnsupportedOperationException("SwitchableEngineInstancePool不创建引擎实例");
+        }
+
+        @Override
+        public PooledObject<ScriptEngineInstance<Context, Value>> wrap(ScriptEngineInstance<Context, Value> instance) {
+            throw new UnsupportedOperationException("SwitchableEngineInstancePool不创建引擎实例");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.clever.hinny.spring.redis;
+
+import com.fasterxml.jackson.core.io.IOContext;
+import com.fasterxml.jackson.core.io.InputDecorator;
+import com.fasterxml.jackson.core.io.OutputDecorator;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Jackson输入输出压缩(Deflate)
+ * <p>
+ * 序列化后的数据超过阈值时压缩，压缩的数据以4字节的文件头开始；读取时根据文件头判断是否需要解压，所以压缩前写入的数据也可以正常读取
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 17:55 <br/>
+ */
+public class CompressionDecorators {
+    /**
+     * 压缩数据的文件头(JSON/Smile/CBOR数据都不会以0x00开头并且长度大于等于4)
+     */
+    private static final byte[] Magic = new byte[]{0x00, 'H', 'Z', 0x01};
+
+    public static OutputDecorator output(int threshold) {
+        return new CompressOutputDecorator(threshold);
+    }
+
+    public static InputDecorator input() {
+        return new DecompressInputDecorator();
+    }
+
+    private static boolean isCompressed(byte[] data, int offset, int length) {
+        if (length < Magic.length) {
+            return false;
+        }
+        for (int i = 0; i < Magic.length; i++) {
+            if (data[offset + i] != Magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CompressOutputDecorator extends OutputDecorator {
+        private final int threshold;
+
+        private CompressOutputDecorator(int threshold) {
+            this.threshold = threshold;
+        }
+
+        @Override
+        public OutputStream decorate(IOContext ctxt, OutputStream out) {
+            return new CompressOutputStream(out, threshold);
+        }
+
+        @Override
+        public Writer decorate(IOContext ctxt, Writer writer) {
+            // 字符输出(writeValueAsString)不压缩
+            return writer;
+        }
+    }
+
+    private static class DecompressInputDecorator extends InputDecorator {
+        @Override
+        public InputStream decorate(IOContext ctxt, InputStream in) throws IOException {
+            PushbackInputStream pushback = new PushbackInputStream(in, Magic.length);
+            byte[] header = new byte[Magic.length];
+            int length = 0;
+            while (length < header.length) {
+                int count = pushback.read(header, length, header.length - length);
+                if (count < 0) {
+                    break;
+                }
+                length += count;
+            }
+            if (isCompressed(header, 0, length)) {
+                return new InflaterInputStream(pushback);
+            }
+            if (length > 0) {
+                pushback.unread(header, 0, length);
+            }
+            return pushback;
+        }
+
+        @Override
+        public InputStream decorate(IOContext ctxt, byte[] src, int offset, int length) {
+            if (isCompressed(src, offset, length)) {
+                return new InflaterInputStream(new ByteArrayInputStream(src, offset + Magic.length, length - Magic.length));
+            }
+            // 返回null表示直接读取原始数据
+            return null;
+        }
+
+        @Override
+        public Reader decorate(IOContext ctxt, Reader reader) {
+            return reader;
+        }
+    }
+
+    /**
+     * 缓存输出的数据，关闭时根据数据大小决定是否压缩
+     */
+    private static class CompressOutputStream extends OutputStream {
+        private final OutputStream out;
+        private final int threshold;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private boolean closed = false;
+
+        private CompressOutputStream(OutputStream out, int threshold) {
+            this.out = out;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (buffer.size() < threshold) {
+                    buffer.writeTo(out);
+                    return;
+                }
+                out.write(Magic);
+                Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+                try {
+                    DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater, 8192);
+                    buffer.writeTo(deflaterOut);
+                    deflaterOut.finish();
+                } finally {
+                    deflater.end();
+                }
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
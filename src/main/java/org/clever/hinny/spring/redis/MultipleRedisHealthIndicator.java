@@ -0,0 +1,115 @@
+package org.clever.hinny.spring.redis;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * multiple-redis数据源健康检查(/actuator/health中的multipleRedis)
+ * <p>
+ * 显示每个数据源的初始化状态和PING结果，只有requiredNames中的数据源不可用时才返回DOWN，
+ * 其他数据源不可用不影响整个服务的健康状态
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 20:15 <br/>
+ */
+public class MultipleRedisHealthIndicator extends AbstractHealthIndicator {
+    private final RedisDataSourceInitializer initializer;
+    private final RedisConnectionRegistry connectionRegistry;
+    private final Set<String> requiredNames;
+    private final long timeoutMillis;
+    private final ExecutorService executor;
+
+    /**
+     * @param requiredNames 必须可用的数据源
+     * @param timeoutMillis 每个数据源PING的最大等待时间
+     */
+    public MultipleRedisHealthIndicator(
+            RedisDataSourceInitializer initializer,
+            RedisConnectionRegistry connectionRegistry,
+            Collection<String> requiredNames,
+            long timeoutMillis) {
+        super("multiple-redis健康检查失败");
+        this.initializer = initializer;
+        this.connectionRegistry = connectionRegistry;
+        this.requiredNames = new HashSet<>(requiredNames);
+        this.timeoutMillis = timeoutMillis;
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "redis-health-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        final Map<String, RedisDataSourceInitializer.State> states = new TreeMap<>(initializer.getStates());
+        final Map<String, Future<String>> pings = new LinkedHashMap<>(states.size());
+        states.forEach((name, state) -> {
+            if (state.getStatus() == RedisDataSourceInitializer.Status.Ready || state.getStatus() == RedisDataSourceInitializer.Status.Lazy) {
+                pings.put(name, executor.submit(() -> ping(name)));
+            }
+        });
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        boolean up = true;
+        for (Map.Entry<String, RedisDataSourceInitializer.State> entry : states.entrySet()) {
+            final String name = entry.getKey();
+            final RedisDataSourceInitializer.State state = entry.getValue();
+            final Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("init", state.getStatus());
+            detail.put("initMillis", state.getInitMillis());
+            boolean available = false;
+            if (state.getError() != null) {
+                detail.put("error", state.getError());
+            }
+            final Future<String> ping = pings.get(name);
+            if (ping != null) {
+                try {
+                    detail.put("ping", ping.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+                    available = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    detail.put("error", e.toString());
+                } catch (ExecutionException e) {
+                    detail.put("error", String.valueOf(e.getCause()));
+                } catch (TimeoutException e) {
+                    ping.cancel(true);
+                    detail.put("error", "PING超时(" + timeoutMillis + "ms)");
+                }
+            }
+            detail.put("status", available ? "UP" : "DOWN");
+            if (!available && requiredNames.contains(name)) {
+                up = false;
+            }
+            builder.withDetail(name, detail);
+        }
+        if (up) {
+            builder.up();
+        } else {
+            builder.down();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String ping(String name) {
+        RedisConnectionFactory connectionFactory = connectionRegistry.getConnectionFactory(name);
+        if (connectionFactory == null) {
+            throw new IllegalStateException("redis数据源不存在: " + name);
+        }
+        RedisConnection connection = connectionFactory.getConnection();
+        try {
+            return connection.ping();
+        } finally {
+            connection.close();
+        }
+    }
+}
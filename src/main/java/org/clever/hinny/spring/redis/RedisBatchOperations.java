@@ -0,0 +1,115 @@
+package org.clever.hinny.spring.redis;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 脚本中使用的redis批量操作(全局变量名默认是RedisBatch)，可以使用multiple-redis中的所有数据源(包括注入的RedisConnectionFactory)
+ * <pre>
+ * // pipeline: 一次网络往返发送多个命令
+ * var results = RedisBatch.pipeline("name").get("a").hset("h", "f", "v").exec();
+ * // 合并读取: 并发的单Key读取在很短的时间窗口内合并成一次pipeline
+ * var value = RedisBatch.get("name", "key");
+ * </pre>
+ * 读写的值使用RedisDataSource相同的序列化(参考RedisConnectionRegistry.getRedisTemplate)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 17:05 <br/>
+ */
+public class RedisBatchOperations {
+    private final RedisConnectionRegistry connectionRegistry;
+    private final String defaultName;
+    private final long autoBatchWindowMicros;
+    private final int maxBatchSize;
+    private final long readTimeoutMillis;
+    /**
+     * 数据源名称 --> 合并读取
+     */
+    private final Map<String, RedisReadBatcher> batcherMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectionRegistry    multiple-redis数据源
+     * @param defaultName           默认的数据源名称
+     * @param autoBatchWindowMicros 合并读取的时间窗口(微秒)
+     * @param maxBatchSize          单次合并的最大Key数量
+     * @param readTimeoutMillis     合并读取的等待时间
+     */
+    public RedisBatchOperations(
+            RedisConnectionRegistry connectionRegistry,
+            String defaultName,
+            long autoBatchWindowMicros,
+            int maxBatchSize,
+            long readTimeoutMillis) {
+        this.connectionRegistry = connectionRegistry;
+        this.defaultName = defaultName;
+        this.autoBatchWindowMicros = autoBatchWindowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * 使用默认数据源创建pipeline
+     */
+    public RedisPipeline pipeline() {
+        return pipeline(defaultName);
+    }
+
+    /**
+     * 创建pipeline
+     *
+     * @param name 数据源名称
+     */
+    public RedisPipeline pipeline(String name) {
+        return new RedisPipeline(getRedisTemplate(name));
+    }
+
+    /**
+     * 使用默认数据源读取Key(与其他请求的读取合并)
+     */
+    public Object get(String key) {
+        return get(defaultName, key);
+    }
+
+    /**
+     * 读取Key(与其他请求的读取合并)
+     *
+     * @param name 数据源名称
+     */
+    public Object get(String name, String key) {
+        final String dataSourceName = StringUtils.isBlank(name) ? defaultName : name;
+        final RedisReadBatcher batcher = batcherMap.computeIfAbsent(
+                dataSourceName,
+                batcherName -> new RedisReadBatcher(batcherName, getRedisTemplate(batcherName), autoBatchWindowMicros, maxBatchSize)
+        );
+        try {
+            return batcher.get(key).get(readTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("读取redis被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("读取redis失败: " + key, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("读取redis超时: " + key, e);
+        }
+    }
+
+    public void shutdown() {
+        batcherMap.values().forEach(RedisReadBatcher::shutdown);
+        batcherMap.clear();
+    }
+
+    private RedisTemplate<String, Object> getRedisTemplate(String name) {
+        final String dataSourceName = StringUtils.isBlank(name) ? defaultName : name;
+        RedisTemplate<String, Object> redisTemplate = connectionRegistry.getRedisTemplate(dataSourceName);
+        if (redisTemplate == null) {
+            throw new IllegalArgumentException("redis数据源不存在: " + dataSourceName);
+        }
+        return redisTemplate;
+    }
+}
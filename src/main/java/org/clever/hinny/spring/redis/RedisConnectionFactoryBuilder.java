@@ -0,0 +1,109 @@
+package org.clever.hinny.spring.redis;
+
+import io.lettuce.core.resource.ClientResources;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.*;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+
+/**
+ * 使用RedisProperties创建LettuceConnectionFactory(支持url、单机、哨兵、集群配置)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 15:00 <br/>
+ */
+public class RedisConnectionFactoryBuilder {
+    /**
+     * @param clientResources 共享的Lettuce客户端资源(可以为null，为null时每个连接单独创建)
+     */
+    public static LettuceConnectionFactory build(RedisProperties properties, ClientResources clientResources) {
+        LettuceConnectionFactory connectionFactory;
+        final LettuceClientConfiguration clientConfiguration = getClientConfiguration(properties, clientResources);
+        if (properties.getSentinel() != null && StringUtils.isNotBlank(properties.getSentinel().getMaster())) {
+            RedisSentinelConfiguration config = new RedisSentinelConfiguration(
+                    properties.getSentinel().getMaster(),
+                    new HashSet<>(properties.getSentinel().getNodes())
+            );
+            config.setDatabase(properties.getDatabase());
+            config.setPassword(RedisPassword.of(properties.getPassword()));
+            connectionFactory = new LettuceConnectionFactory(config, clientConfiguration);
+        } else if (properties.getCluster() != null && properties.getCluster().getNodes() != null && !properties.getCluster().getNodes().isEmpty()) {
+            RedisClusterConfiguration config = new RedisClusterConfiguration(properties.getCluster().getNodes());
+            if (properties.getCluster().getMaxRedirects() != null) {
+                config.setMaxRedirects(properties.getCluster().getMaxRedirects());
+            }
+            config.setPassword(RedisPassword.of(properties.getPassword()));
+            connectionFactory = new LettuceConnectionFactory(config, clientConfiguration);
+        } else {
+            connectionFactory = new LettuceConnectionFactory(getStandaloneConfiguration(properties), clientConfiguration);
+        }
+        connectionFactory.afterPropertiesSet();
+        return connectionFactory;
+    }
+
+    private static RedisStandaloneConfiguration getStandaloneConfiguration(RedisProperties properties) {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
+        if (StringUtils.isNotBlank(properties.getUrl())) {
+            URI uri;
+            try {
+                uri = new URI(properties.getUrl());
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("redis url格式错误: " + properties.getUrl(), e);
+            }
+            config.setHostName(uri.getHost());
+            config.setPort(uri.getPort() > 0 ? uri.getPort() : 6379);
+            String userInfo = uri.getUserInfo();
+            if (userInfo != null) {
+                int index = userInfo.indexOf(':');
+                config.setPassword(RedisPassword.of(index >= 0 ? userInfo.substring(index + 1) : userInfo));
+            }
+        } else {
+            config.setHostName(properties.getHost());
+            config.setPort(properties.getPort());
+            config.setPassword(RedisPassword.of(properties.getPassword()));
+        }
+        config.setDatabase(properties.getDatabase());
+        return config;
+    }
+
+    private static LettuceClientConfiguration getClientConfiguration(RedisProperties properties, ClientResources clientResources) {
+        final RedisProperties.Lettuce lettuce = properties.getLettuce();
+        final RedisProperties.Pool pool = lettuce == null ? null : lettuce.getPool();
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder;
+        if (pool != null) {
+            GenericObjectPoolConfig<?> poolConfig = new GenericObjectPoolConfig<>();
+            poolConfig.setMaxTotal(pool.getMaxActive());
+            poolConfig.setMaxIdle(pool.getMaxIdle());
+            poolConfig.setMinIdle(pool.getMinIdle());
+            if (pool.getMaxWait() != null) {
+                poolConfig.setMaxWaitMillis(pool.getMaxWait().toMillis());
+            }
+            if (pool.getTimeBetweenEvictionRuns() != null) {
+                poolConfig.setTimeBetweenEvictionRunsMillis(pool.getTimeBetweenEvictionRuns().toMillis());
+            }
+            builder = LettucePoolingClientConfiguration.builder().poolConfig(poolConfig);
+        } else {
+            builder = LettuceClientConfiguration.builder();
+        }
+        if (properties.isSsl() || StringUtils.startsWith(properties.getUrl(), "rediss://")) {
+            builder.useSsl();
+        }
+        if (properties.getTimeout() != null) {
+            builder.commandTimeout(properties.getTimeout());
+        }
+        if (lettuce != null && lettuce.getShutdownTimeout() != null) {
+            builder.shutdownTimeout(lettuce.getShutdownTimeout());
+        }
+        if (clientResources != null) {
+            builder.clientResources(clientResources);
+        }
+        return builder.build();
+    }
+}
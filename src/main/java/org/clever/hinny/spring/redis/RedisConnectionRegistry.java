@@ -0,0 +1,162 @@
+package org.clever.hinny.spring.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * multiple-redis数据源的RedisConnectionFactory
+ * <p>
+ * 配置的数据源第一次使用时才创建RedisConnectionFactory；RedisDatabase中的RedisDataSource、starter中的缓存、批量操作和健康检查都使用这里的RedisConnectionFactory(共用一个连接池)<br/>
+ * 每个数据源还记录了RedisDataSource使用的ObjectMapper，getRedisTemplate返回的RedisTemplate与RedisDataSource使用相同的序列化(Key是字符串，Value使用ObjectMapper)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 15:20 <br/>
+ */
+@Slf4j
+public class RedisConnectionRegistry {
+    /**
+     * 数据源名称 --> 数据源配置
+     */
+    private final Map<String, RedisProperties> propertiesMap = new ConcurrentHashMap<>();
+    /**
+     * 数据源名称 --> RedisConnectionFactory
+     */
+    private final Map<String, RedisConnectionFactory> connectionFactoryMap = new ConcurrentHashMap<>();
+    /**
+     * 由当前对象创建的RedisConnectionFactory(需要销毁)
+     */
+    private final Map<String, LettuceConnectionFactory> createdMap = new ConcurrentHashMap<>();
+    /**
+     * 数据源名称 --> RedisDataSource使用的ObjectMapper
+     */
+    private final Map<String, ObjectMapper> objectMapperMap = new ConcurrentHashMap<>();
+    /**
+     * 数据源名称 --> RedisTemplate
+     */
+    private final Map<String, RedisTemplate<String, Object>> redisTemplateMap = new ConcurrentHashMap<>();
+    /**
+     * 创建的RedisConnectionFactory共享的客户端资源(线程池)
+     */
+    private volatile ClientResources clientResources;
+
+    /**
+     * 注册已存在的RedisConnectionFactory
+     *
+     * @param objectMapper RedisDataSource使用的ObjectMapper
+     */
+    public void register(String name, RedisConnectionFactory connectionFactory, ObjectMapper objectMapper) {
+        connectionFactoryMap.put(name, connectionFactory);
+        objectMapperMap.put(name, objectMapper);
+    }
+
+    /**
+     * 注册数据源配置(第一次使用时才创建RedisConnectionFactory)
+     *
+     * @param objectMapper RedisDataSource使用的ObjectMapper
+     */
+    public void register(String name, RedisProperties properties, ObjectMapper objectMapper) {
+        propertiesMap.put(name, properties);
+        objectMapperMap.put(name, objectMapper);
+    }
+
+    public boolean contains(String name) {
+        return connectionFactoryMap.containsKey(name) || propertiesMap.containsKey(name);
+    }
+
+    /**
+     * 获取RedisConnectionFactory
+     *
+     * @return 数据源不存在返回null
+     */
+    public RedisConnectionFactory getConnectionFactory(String name) {
+        RedisConnectionFactory connectionFactory = connectionFactoryMap.get(name);
+        if (connectionFactory != null) {
+            return connectionFactory;
+        }
+        final RedisProperties properties = propertiesMap.get(name);
+        if (properties == null) {
+            return null;
+        }
+        return connectionFactoryMap.computeIfAbsent(name, key -> {
+            LettuceConnectionFactory created = RedisConnectionFactoryBuilder.build(properties, getClientResources());
+            createdMap.put(key, created);
+            log.info("#创建RedisConnectionFactory: {}", key);
+            return created;
+        });
+    }
+
+    /**
+     * 获取RedisDataSource使用的ObjectMapper
+     *
+     * @return 数据源不存在返回null
+     */
+    public ObjectMapper getObjectMapper(String name) {
+        return objectMapperMap.get(name);
+    }
+
+    /**
+     * 获取与RedisDataSource序列化相同的RedisTemplate
+     *
+     * @return 数据源不存在返回null
+     */
+    public RedisTemplate<String, Object> getRedisTemplate(String name) {
+        RedisTemplate<String, Object> redisTemplate = redisTemplateMap.get(name);
+        if (redisTemplate != null) {
+            return redisTemplate;
+        }
+        final RedisConnectionFactory connectionFactory = getConnectionFactory(name);
+        if (connectionFactory == null) {
+            return null;
+        }
+        return redisTemplateMap.computeIfAbsent(name, key -> {
+            Jackson2JsonRedisSerializer<Object> valueSerializer = new Jackson2JsonRedisSerializer<>(Object.class);
+            valueSerializer.setObjectMapper(objectMapperMap.get(key));
+            StringRedisSerializer keySerializer = new StringRedisSerializer();
+            RedisTemplate<String, Object> template = new RedisTemplate<>();
+            template.setConnectionFactory(connectionFactory);
+            template.setKeySerializer(keySerializer);
+            template.setHashKeySerializer(keySerializer);
+            template.setValueSerializer(valueSerializer);
+            template.setHashValueSerializer(valueSerializer);
+            template.afterPropertiesSet();
+            return template;
+        });
+    }
+
+    public void destroy() {
+        createdMap.forEach((name, connectionFactory) -> {
+            try {
+                connectionFactory.destroy();
+            } catch (Exception e) {
+                log.warn("关闭RedisConnectionFactory失败: {}", name, e);
+            }
+        });
+        createdMap.clear();
+        if (clientResources != null) {
+            clientResources.shutdown();
+            clientResources = null;
+        }
+    }
+
+    private ClientResources getClientResources() {
+        if (clientResources == null) {
+            synchronized (this) {
+                if (clientResources == null) {
+                    clientResources = DefaultClientResources.create();
+                }
+            }
+        }
+        return clientResources;
+    }
+}
@@ -0,0 +1,169 @@
+package org.clever.hinny.spring.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.data.redis.RedisDataSource;
+import org.clever.hinny.spring.config.DataSourceInitMode;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 创建multiple-redis数据源(RedisDataSource)并记录每个数据源的初始化状态
+ * <p>
+ * 1. Serial: 依次创建<br/>
+ * 2. Parallel: 使用固定数量的线程并行创建，最多等待timeout时间；超时的数据源在后台继续创建，完成后再注册<br/>
+ * 3. Lazy: 使用不立即连接的RedisConnectionFactory，第一次执行命令时才连接redis<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 19:50 <br/>
+ */
+@Slf4j
+public class RedisDataSourceInitializer {
+    public enum Status {
+        /**
+         * 正在初始化
+         */
+        Initializing,
+        /**
+         * 初始化完成
+         */
+        Ready,
+        /**
+         * 延迟连接(第一次使用时才连接redis)
+         */
+        Lazy,
+        /**
+         * 初始化失败
+         */
+        Failed,
+    }
+
+    private final DataSourceInitMode mode;
+    private final int parallelism;
+    private final long timeoutMillis;
+    /**
+     * 数据源名称 --> 初始化状态
+     */
+    private final Map<String, State> stateMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param timeoutMillis 并行初始化(Parallel)时的最大等待时间
+     */
+    public RedisDataSourceInitializer(DataSourceInitMode mode, int parallelism, long timeoutMillis) {
+        this.mode = mode == null ? DataSourceInitMode.Serial : mode;
+        this.parallelism = Math.max(1, parallelism);
+        this.timeoutMillis = Math.max(0, timeoutMillis);
+    }
+
+    public DataSourceInitMode getMode() {
+        return mode;
+    }
+
+    /**
+     * 创建数据源(任意一个创建失败时抛出异常)
+     *
+     * @param tasks   数据源名称 --> 创建数据源
+     * @param onReady 数据源创建完成后的回调(Parallel模式下超时的数据源在后台线程中回调)
+     */
+    public void createAll(Map<String, Callable<RedisDataSource>> tasks, BiConsumer<String, RedisDataSource> onReady) {
+        tasks.keySet().forEach(name -> stateMap.put(name, new State(Status.Initializing, null, 0)));
+        if (mode != DataSourceInitMode.Parallel || tasks.size() <= 1) {
+            tasks.forEach((name, task) -> {
+                final long startTime = System.currentTimeMillis();
+                RedisDataSource redisDataSource;
+                try {
+                    redisDataSource = task.call();
+                } catch (Exception e) {
+                    stateMap.put(name, new State(Status.Failed, e.toString(), System.currentTimeMillis() - startTime));
+                    throw new RuntimeException("创建redis数据源失败: " + name, e);
+                }
+                onReady.accept(name, redisDataSource);
+                Status status = mode == DataSourceInitMode.Lazy ? Status.Lazy : Status.Ready;
+                stateMap.put(name, new State(status, null, System.currentTimeMillis() - startTime));
+            });
+            return;
+        }
+        final long startTime = System.currentTimeMillis();
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "redis-init-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Map<String, Future<?>> futures = new LinkedHashMap<>(tasks.size());
+        try {
+            tasks.forEach((name, task) -> futures.put(name, executor.submit(() -> {
+                final long taskStartTime = System.currentTimeMillis();
+                try {
+                    RedisDataSource redisDataSource = task.call();
+                    onReady.accept(name, redisDataSource);
+                    stateMap.put(name, new State(Status.Ready, null, System.currentTimeMillis() - taskStartTime));
+                    return null;
+                } catch (Exception e) {
+                    stateMap.put(name, new State(Status.Failed, e.toString(), System.currentTimeMillis() - taskStartTime));
+                    log.error("#创建redis数据源失败: {}", name, e);
+                    throw e;
+                }
+            })));
+        } finally {
+            executor.shutdown();
+        }
+        final long deadline = startTime + timeoutMillis;
+        final Map<String, Throwable> errors = new LinkedHashMap<>();
+        final List<String> timeoutNames = new ArrayList<>();
+        for (Map.Entry<String, Future<?>> entry : futures.entrySet()) {
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.put(entry.getKey(), e);
+            } catch (ExecutionException e) {
+                errors.put(entry.getKey(), e.getCause());
+            } catch (TimeoutException e) {
+                timeoutNames.add(entry.getKey());
+            }
+        }
+        if (!errors.isEmpty()) {
+            RuntimeException exception = new RuntimeException("创建redis数据源失败: " + errors.keySet());
+            errors.forEach((name, error) -> exception.addSuppressed(error));
+            throw exception;
+        }
+        if (!timeoutNames.isEmpty()) {
+            log.warn("#redis数据源初始化超时，在后台继续初始化 | 数据源: {} | 超时时间: {}ms", timeoutNames, timeoutMillis);
+        }
+        log.info("#并行创建redis数据源完成 | 数据源数: {} | 耗时: {}ms", tasks.size() - timeoutNames.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 数据源名称 --> 初始化状态
+     */
+    public Map<String, State> getStates() {
+        return Collections.unmodifiableMap(stateMap);
+    }
+
+    public static class State {
+        private final Status status;
+        private final String error;
+        private final long initMillis;
+
+        public State(Status status, String error, long initMillis) {
+            this.status = status;
+            this.error = error;
+            this.initMillis = initMillis;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public long getInitMillis() {
+            return initMillis;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package org.clever.hinny.spring.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * redis近端缓存(单个数据源)
+ * <p>
+ * 读取的值缓存在本地(LRU，数量有限)，通过redis键空间通知(keyspace notifications)使修改过的Key失效；
+ * 通知可能丢失(如订阅连接断开、FLUSHDB)，所以缓存还有一个过期时间兜底<br/>
+ * 值使用RedisTemplate的序列化(与RedisDataSource相同)反序列化；
+ * 失效通知由单个线程处理，等待处理的通知超过上限时直接清空本地缓存
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 18:40 <br/>
+ */
+@Slf4j
+public class RedisNearCache {
+    /**
+     * 缓存redis中不存在的Key
+     */
+    private static final Object Null_Value = new Object();
+    private static final String Keyspace_Separator = "__:";
+    /**
+     * 等待处理的失效通知上限
+     */
+    static final int Max_Pending_Notifications = 10000;
+
+    private final String name;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final String keyPrefix;
+    /**
+     * Key --> 缓存值(LRU)
+     */
+    private final LinkedHashMap<String, Entry> cache;
+    /**
+     * 失效次数(读取redis期间有Key失效时不缓存读取结果，避免缓存旧值)
+     */
+    private long invalidateSequence = 0;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder invalidateCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private volatile RedisMessageListenerContainer listenerContainer;
+    private volatile ThreadPoolExecutor listenerExecutor;
+
+    /**
+     * @param name      数据源名称
+     * @param maxSize   最大缓存数量
+     * @param ttlMillis 缓存过期时间
+     * @param keyPrefix 只缓存以此开头的Key(不能为空，否则会订阅所有Key的键空间通知)
+     */
+    public RedisNearCache(String name, RedisTemplate<String, Object> redisTemplate, int maxSize, long ttlMillis, String keyPrefix) {
+        if (StringUtils.isEmpty(keyPrefix)) {
+            throw new IllegalArgumentException("redis近端缓存的keyPrefix不能为空(为空会订阅所有Key的键空间通知) | 数据源: " + name);
+        }
+        this.name = name;
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = redisTemplate.getConnectionFactory();
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.keyPrefix = keyPrefix;
+        this.cache = new LinkedHashMap<String, Entry>(64, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean remove = size() > RedisNearCache.this.maxSize;
+                if (remove) {
+                    evictionCount.increment();
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * 开始监听键空间通知
+     *
+     * @param configureNotifications 是否修改redis的notify-keyspace-events配置(需要CONFIG权限)
+     */
+    public synchronized void start(boolean configureNotifications) {
+        if (configureNotifications) {
+            enableKeyspaceNotifications();
+        }
+        // 单线程处理失效通知(默认的SimpleAsyncTaskExecutor每个通知创建一个线程)，通知积压时清空本地缓存
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Max_Pending_Notifications),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "redis-near-cache-" + name);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    if (!pool.isShutdown()) {
+                        clear();
+                    }
+                }
+        );
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(
+                (message, pattern) -> invalidate(new String(message.getChannel(), StandardCharsets.UTF_8)),
+                new PatternTopic(getKeyspacePattern(keyPrefix))
+        );
+        container.afterPropertiesSet();
+        container.start();
+        listenerContainer = container;
+        listenerExecutor = executor;
+    }
+
+    public synchronized void shutdown() {
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                log.warn("关闭redis消息监听失败", e);
+            }
+            listenerContainer = null;
+        }
+        if (listenerExecutor != null) {
+            listenerExecutor.shutdownNow();
+            listenerExecutor = null;
+        }
+        clear();
+    }
+
+    /**
+     * 读取Key(优先从本地缓存读取)
+     */
+    public Object get(String key) {
+        if (key == null || !key.startsWith(keyPrefix)) {
+            return read(key);
+        }
+        final long now = System.currentTimeMillis();
+        final long sequence;
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && entry.expireAt > now) {
+                hitCount.increment();
+                return entry.value == Null_Value ? null : entry.value;
+            }
+            if (entry != null) {
+                cache.remove(key);
+            }
+            sequence = invalidateSequence;
+        }
+        missCount.increment();
+        final Object value = read(key);
+        synchronized (cache) {
+            if (sequence == invalidateSequence) {
+                cache.put(key, new Entry(value == null ? Null_Value : value, now + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 使本地缓存的Key失效
+     */
+    public void invalidateKey(String key) {
+        synchronized (cache) {
+            invalidateSequence++;
+            cache.remove(key);
+        }
+        invalidateCount.increment();
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    public void clear() {
+        synchronized (cache) {
+            invalidateSequence++;
+            cache.clear();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getInvalidateCount() {
+        return invalidateCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * @param channel 键空间通知的channel，如: “__keyspace@0__:config:app”
+     */
+    protected void invalidate(String channel) {
+        int index = channel.indexOf(Keyspace_Separator);
+        if (index < 0) {
+            return;
+        }
+        invalidateKey(channel.substring(index + Keyspace_Separator.length()));
+    }
+
+    /**
+     * keyPrefix对应的键空间通知channel模式(转义keyPrefix中的glob字符，避免订阅到其他Key的通知)
+     */
+    static String getKeyspacePattern(String keyPrefix) {
+        StringBuilder pattern = new StringBuilder("__keyspace@*__:");
+        for (int i = 0; i < keyPrefix.length(); i++) {
+            char ch = keyPrefix.charAt(i);
+            if (ch == '*' || ch == '?' || ch == '[' || ch == ']' || ch == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(ch);
+        }
+        return pattern.append('*').toString();
+    }
+
+    private Object read(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    /**
+     * 在redis的notify-keyspace-events配置中加入键空间通知(K)和所有事件(A)
+     */
+    private void enableKeyspaceNotifications() {
+        RedisConnection connection = connectionFactory.getConnection();
+        try {
+            Properties properties = connection.getConfig("notify-keyspace-events");
+            String events = properties == null ? "" : properties.getProperty("notify-keyspace-events", "");
+            if (events.contains("K") && events.contains("A")) {
+                return;
+            }
+            connection.setConfig("notify-keyspace-events", events + "KA");
+            log.info("#开启redis键空间通知 | 数据源: {}", name);
+        } catch (Exception e) {
+            log.warn("#开启redis键空间通知失败(需要手动配置 notify-keyspace-events KA) | 数据源: {}", name, e);
+        } finally {
+            connection.close();
+        }
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long expireAt;
+
+        private Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+    }
+}
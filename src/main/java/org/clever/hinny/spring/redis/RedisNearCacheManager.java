@@ -0,0 +1,104 @@
+package org.clever.hinny.spring.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 脚本中使用的redis近端缓存(全局变量名默认是RedisNearCache)，适合读多写少的配置类Key
+ * <pre>
+ * var value = RedisNearCache.get("config:app");
+ * var value = RedisNearCache.get("name", "config:app");
+ * </pre>
+ * 值使用RedisDataSource相同的序列化读取(参考RedisConnectionRegistry.getRedisTemplate)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 19:05 <br/>
+ */
+@Slf4j
+public class RedisNearCacheManager {
+    private final String defaultName;
+    /**
+     * 数据源名称 --> 近端缓存
+     */
+    private final Map<String, RedisNearCache> nearCacheMap = new LinkedHashMap<>();
+
+    /**
+     * @param connectionRegistry     multiple-redis数据源
+     * @param defaultName            默认的数据源名称
+     * @param names                  开启近端缓存的数据源(为空表示只有默认数据源)
+     * @param maxSize                每个数据源的最大缓存数量
+     * @param ttlMillis              缓存过期时间
+     * @param keyPrefix              只缓存以此开头的Key(不能为空)
+     * @param configureNotifications 是否修改redis的notify-keyspace-events配置
+     */
+    public RedisNearCacheManager(
+            RedisConnectionRegistry connectionRegistry,
+            String defaultName,
+            Collection<String> names,
+            int maxSize,
+            long ttlMillis,
+            String keyPrefix,
+            boolean configureNotifications) {
+        this.defaultName = defaultName;
+        if (names == null || names.isEmpty()) {
+            names = Collections.singletonList(defaultName);
+        }
+        for (String name : names) {
+            RedisTemplate<String, Object> redisTemplate = connectionRegistry.getRedisTemplate(name);
+            if (redisTemplate == null) {
+                log.warn("#redis近端缓存的数据源不存在: {}", name);
+                continue;
+            }
+            RedisNearCache nearCache = new RedisNearCache(name, redisTemplate, maxSize, ttlMillis, keyPrefix);
+            nearCache.start(configureNotifications);
+            nearCacheMap.put(name, nearCache);
+            log.info("#开启redis近端缓存 | 数据源: {}", name);
+        }
+    }
+
+    /**
+     * 使用默认数据源读取Key
+     */
+    public Object get(String key) {
+        return get(defaultName, key);
+    }
+
+    /**
+     * 读取Key(优先从本地缓存读取)
+     *
+     * @param name 数据源名称
+     */
+    public Object get(String name, String key) {
+        return getNearCache(name).get(key);
+    }
+
+    /**
+     * 清空数据源的本地缓存
+     */
+    public void clear(String name) {
+        getNearCache(name).clear();
+    }
+
+    public Collection<RedisNearCache> getNearCaches() {
+        return Collections.unmodifiableCollection(nearCacheMap.values());
+    }
+
+    public void shutdown() {
+        nearCacheMap.values().forEach(RedisNearCache::shutdown);
+    }
+
+    private RedisNearCache getNearCache(String name) {
+        final String dataSourceName = StringUtils.isBlank(name) ? defaultName : name;
+        RedisNearCache nearCache = nearCacheMap.get(dataSourceName);
+        if (nearCache == null) {
+            throw new IllegalArgumentException("redis数据源未开启近端缓存: " + dataSourceName);
+        }
+        return nearCache;
+    }
+}
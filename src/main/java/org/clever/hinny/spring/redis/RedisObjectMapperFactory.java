@@ -0,0 +1,70 @@
+package org.clever.hinny.spring.redis;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import org.clever.hinny.spring.config.MultipleRedisConfig;
+import org.clever.hinny.spring.config.RedisSerializerType;
+
+import java.util.Objects;
+
+/**
+ * 根据序列化配置创建RedisDataSource使用的ObjectMapper(复制原ObjectMapper的所有配置，只替换数据格式和压缩)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 18:10 <br/>
+ */
+public class RedisObjectMapperFactory {
+    private static final String Smile_Factory = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+    private static final String Cbor_Factory = "com.fasterxml.jackson.dataformat.cbor.CBORFactory";
+
+    /**
+     * @param source 原ObjectMapper(JSON)
+     * @param config 序列化配置
+     * @return 使用默认配置(JSON不压缩)时返回source
+     */
+    public static ObjectMapper create(ObjectMapper source, MultipleRedisConfig.SerializerConfig config) {
+        if (config == null || (Objects.equals(config.getType(), RedisSerializerType.Json) && !config.isCompress())) {
+            return source;
+        }
+        ObjectMapper objectMapper;
+        if (config.getType() == null || Objects.equals(config.getType(), RedisSerializerType.Json)) {
+            objectMapper = source.copy();
+        } else {
+            final String factoryClass = Objects.equals(config.getType(), RedisSerializerType.Smile) ? Smile_Factory : Cbor_Factory;
+            objectMapper = copyWith(source, newFactory(factoryClass));
+        }
+        if (config.isCompress()) {
+            objectMapper.getFactory().setOutputDecorator(CompressionDecorators.output(config.getCompressThreshold()));
+            objectMapper.getFactory().setInputDecorator(CompressionDecorators.input());
+        }
+        return objectMapper;
+    }
+
+    /**
+     * 使用新的JsonFactory复制ObjectMapper(保留模块注册的序列化器和所有特性配置)
+     */
+    private static ObjectMapper copyWith(ObjectMapper source, JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(
+                jsonFactory,
+                (DefaultSerializerProvider) source.getSerializerProvider(),
+                (DefaultDeserializationContext) source.getDeserializationContext()
+        );
+        objectMapper.setSerializerFactory(source.getSerializerFactory());
+        objectMapper.setConfig(source.getSerializationConfig());
+        objectMapper.setConfig(source.getDeserializationConfig());
+        objectMapper.setInjectableValues(source.getInjectableValues());
+        return objectMapper;
+    }
+
+    private static JsonFactory newFactory(String className) {
+        try {
+            return (JsonFactory) Class.forName(className).newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("缺少依赖: " + className, e);
+        } catch (InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("创建 " + className + " 失败", e);
+        }
+    }
+}
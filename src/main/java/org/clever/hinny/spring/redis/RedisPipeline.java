@@ -0,0 +1,235 @@
+package org.clever.hinny.spring.redis;
+
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 缓存redis命令，调用exec时通过pipeline一次性发送(一次网络往返)
+ * <pre>
+ * var results = RedisBatch.pipeline()
+ *     .get("a")
+ *     .hset("h", "f", {a: 1})
+ *     .command("ZADD", "z", "1", "m")
+ *     .exec();
+ * </pre>
+ * get/set/hget/hset等命令使用RedisTemplate的序列化(与RedisDataSource相同，值可以和RedisDataSource互相读写)；
+ * command增加的任意命令，参数和返回值都是字符串(UTF-8)<br/>
+ * redis集群不支持pipeline，此时依次执行命令
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 16:20 <br/>
+ */
+public class RedisPipeline {
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisSerializer<String> keySerializer;
+    private final RedisSerializer<Object> valueSerializer;
+    private final RedisSerializer<Object> hashKeySerializer;
+    private final RedisSerializer<Object> hashValueSerializer;
+    private final List<Command> commands = new ArrayList<>();
+
+    /**
+     * @param redisTemplate 使用RedisDataSource序列化的RedisTemplate(参考RedisConnectionRegistry.getRedisTemplate)
+     */
+    @SuppressWarnings("unchecked")
+    public RedisPipeline(RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        this.valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        this.hashKeySerializer = (RedisSerializer<Object>) redisTemplate.getHashKeySerializer();
+        this.hashValueSerializer = (RedisSerializer<Object>) redisTemplate.getHashValueSerializer();
+    }
+
+    /**
+     * 增加任意redis命令(参数和返回值都是字符串)
+     */
+    public RedisPipeline command(String command, String... args) {
+        final byte[][] bytes = new byte[args == null ? 0 : args.length][];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = toBytes(args[i]);
+        }
+        commands.add(new Command(connection -> connection.execute(command, bytes), RedisPipeline::convert));
+        return this;
+    }
+
+    public RedisPipeline get(String key) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        commands.add(new Command(connection -> connection.get(rawKey), this::deserializeValue));
+        return this;
+    }
+
+    public RedisPipeline set(String key, Object value) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        final byte[] rawValue = valueSerializer.serialize(value);
+        commands.add(new Command(connection -> connection.set(rawKey, rawValue), Function.identity()));
+        return this;
+    }
+
+    public RedisPipeline setex(String key, long seconds, Object value) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        final byte[] rawValue = valueSerializer.serialize(value);
+        commands.add(new Command(connection -> connection.setEx(rawKey, seconds, rawValue), Function.identity()));
+        return this;
+    }
+
+    public RedisPipeline del(String key) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        commands.add(new Command(connection -> connection.del(rawKey), Function.identity()));
+        return this;
+    }
+
+    public RedisPipeline expire(String key, long seconds) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        commands.add(new Command(connection -> connection.expire(rawKey, seconds), Function.identity()));
+        return this;
+    }
+
+    public RedisPipeline incr(String key) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        commands.add(new Command(connection -> connection.incr(rawKey), Function.identity()));
+        return this;
+    }
+
+    public RedisPipeline hget(String key, String field) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        final byte[] rawField = hashKeySerializer.serialize(field);
+        commands.add(new Command(connection -> connection.hGet(rawKey, rawField), this::deserializeHashValue));
+        return this;
+    }
+
+    public RedisPipeline hset(String key, String field, Object value) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        final byte[] rawField = hashKeySerializer.serialize(field);
+        final byte[] rawValue = hashValueSerializer.serialize(value);
+        commands.add(new Command(connection -> connection.hSet(rawKey, rawField, rawValue), Function.identity()));
+        return this;
+    }
+
+    public RedisPipeline hgetall(String key) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        commands.add(new Command(connection -> connection.hGetAll(rawKey), this::deserializeHash));
+        return this;
+    }
+
+    public RedisPipeline hdel(String key, String field) {
+        final byte[] rawKey = keySerializer.serialize(key);
+        final byte[] rawField = hashKeySerializer.serialize(field);
+        commands.add(new Command(connection -> connection.hDel(rawKey, rawField), Function.identity()));
+        return this;
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * 发送所有缓存的命令并清空
+     *
+     * @return 每个命令的返回值(顺序与命令一致)
+     */
+    public List<Object> exec() {
+        if (commands.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Command> batch = new ArrayList<>(commands);
+        commands.clear();
+        final List<Object> rawResults = redisTemplate.execute((RedisCallback<List<Object>>) connection -> {
+            if (connection instanceof RedisClusterConnection) {
+                List<Object> list = new ArrayList<>(batch.size());
+                for (Command command : batch) {
+                    list.add(command.action.doInRedis(connection));
+                }
+                return list;
+            }
+            // 与RedisTemplate.executePipelined相同，只是返回值按每个命令各自的方式反序列化
+            connection.openPipeline();
+            boolean pipelineClosed = false;
+            try {
+                for (Command command : batch) {
+                    command.action.doInRedis(connection);
+                }
+                List<Object> list = connection.closePipeline();
+                pipelineClosed = true;
+                return list;
+            } finally {
+                if (!pipelineClosed) {
+                    connection.closePipeline();
+                }
+            }
+        });
+        final List<Object> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Object rawResult = rawResults != null && i < rawResults.size() ? rawResults.get(i) : null;
+            results.add(rawResult == null ? null : batch.get(i).converter.apply(rawResult));
+        }
+        return results;
+    }
+
+    static byte[] toBytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 把redis返回的byte[]转换成字符串
+     */
+    static Object convert(Object result) {
+        if (result instanceof byte[]) {
+            return new String((byte[]) result, StandardCharsets.UTF_8);
+        }
+        if (result instanceof Collection) {
+            List<Object> list = new ArrayList<>(((Collection<?>) result).size());
+            for (Object item : (Collection<?>) result) {
+                list.add(convert(item));
+            }
+            return list;
+        }
+        if (result instanceof Map) {
+            Map<Object, Object> map = new LinkedHashMap<>(((Map<?, ?>) result).size());
+            ((Map<?, ?>) result).forEach((key, value) -> map.put(convert(key), convert(value)));
+            return map;
+        }
+        return result;
+    }
+
+    private Object deserializeValue(Object rawValue) {
+        return rawValue instanceof byte[] ? valueSerializer.deserialize((byte[]) rawValue) : rawValue;
+    }
+
+    private Object deserializeHashValue(Object rawValue) {
+        return rawValue instanceof byte[] ? hashValueSerializer.deserialize((byte[]) rawValue) : rawValue;
+    }
+
+    private Object deserializeHash(Object rawHash) {
+        if (!(rawHash instanceof Map)) {
+            return rawHash;
+        }
+        Map<Object, Object> map = new LinkedHashMap<>(((Map<?, ?>) rawHash).size());
+        ((Map<?, ?>) rawHash).forEach((field, value) -> map.put(
+                field instanceof byte[] ? hashKeySerializer.deserialize((byte[]) field) : field,
+                deserializeHashValue(value)
+        ));
+        return map;
+    }
+
+    private static class Command {
+        /**
+         * 执行命令(pipeline中返回null)
+         */
+        private final RedisCallback<?> action;
+        /**
+         * 转换redis的返回值
+         */
+        private final Function<Object, Object> converter;
+
+        private Command(RedisCallback<?> action, Function<Object, Object> converter) {
+            this.action = action;
+            this.converter = converter;
+        }
+    }
+}
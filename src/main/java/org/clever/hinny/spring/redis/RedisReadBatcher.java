@@ -0,0 +1,159 @@
+package org.clever.hinny.spring.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 合并并发的单Key读取(GET)
+ * <p>
+ * 1. 没有等待读取和正在读取的请求时，在调用线程中立即读取(不等待window时间)<br/>
+ * 2. 有正在读取的请求时，新的请求等待window时间(或者等到maxBatchSize个请求、或者正在读取的请求结束)，
+ * 然后把这段时间内的所有读取合并成一次pipeline发送，相同的Key只读取一次<br/>
+ * 3. 读取的值使用RedisTemplate的序列化(与RedisDataSource相同)反序列化
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 16:45 <br/>
+ */
+@Slf4j
+public class RedisReadBatcher {
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    /**
+     * 等待读取的请求(pending、inFlight、scheduledFlush都在pending锁中修改)
+     */
+    private final Map<String, CompletableFuture<Object>> pending = new LinkedHashMap<>();
+    /**
+     * 正在读取的批次数量
+     */
+    private int inFlight;
+    /**
+     * 合并读取的定时器与执行线程(线程空闲时回收)
+     */
+    private final ScheduledThreadPoolExecutor scheduler;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param name         名称(用于线程名)
+     * @param windowMicros 合并读取的时间窗口(微秒)
+     * @param maxBatchSize 单次合并的最大Key数量
+     */
+    public RedisReadBatcher(String name, RedisTemplate<String, Object> redisTemplate, long windowMicros, int maxBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.windowMicros = Math.max(0, windowMicros);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.max(2, Runtime.getRuntime().availableProcessors()), runnable -> {
+            Thread thread = new Thread(runnable, "redis-read-batcher-" + name + "-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setKeepAliveTime(60, TimeUnit.SECONDS);
+        this.scheduler.allowCoreThreadTimeOut(true);
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 读取Key(与其他线程的读取合并发送)
+     */
+    public CompletableFuture<Object> get(String key) {
+        Map<String, CompletableFuture<Object>> batch = null;
+        boolean flushNow = false;
+        CompletableFuture<Object> future;
+        synchronized (pending) {
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            if (inFlight == 0 && pending.size() == 1) {
+                // 没有其他读取，立即读取
+                batch = takePending();
+            } else if (pending.size() >= maxBatchSize) {
+                flushNow = true;
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (batch != null) {
+            doFlush(batch);
+        } else if (flushNow) {
+            scheduler.execute(this::flush);
+        }
+        return future;
+    }
+
+    protected void flush() {
+        final Map<String, CompletableFuture<Object>> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        doFlush(batch);
+    }
+
+    /**
+     * 取出所有等待读取的请求(在pending锁中调用)
+     */
+    private Map<String, CompletableFuture<Object>> takePending() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        final Map<String, CompletableFuture<Object>> batch = new LinkedHashMap<>(pending);
+        pending.clear();
+        inFlight++;
+        return batch;
+    }
+
+    private void doFlush(Map<String, CompletableFuture<Object>> batch) {
+        try {
+            RedisPipeline pipeline = new RedisPipeline(redisTemplate);
+            for (String key : batch.keySet()) {
+                pipeline.get(key);
+            }
+            List<Object> results = pipeline.exec();
+            int index = 0;
+            for (CompletableFuture<Object> future : batch.values()) {
+                future.complete(index < results.size() ? results.get(index) : null);
+                index++;
+            }
+        } catch (Throwable e) {
+            log.debug("#合并读取redis失败 | Key数量: {}", batch.size(), e);
+            for (CompletableFuture<Object> future : batch.values()) {
+                future.completeExceptionally(e);
+            }
+        } finally {
+            boolean flushNext;
+            synchronized (pending) {
+                inFlight--;
+                // 正在读取的请求都结束了，不再等待window时间
+                flushNext = inFlight == 0 && !pending.isEmpty();
+            }
+            if (flushNext && !scheduler.isShutdown()) {
+                try {
+                    scheduler.execute(this::flush);
+                } catch (RejectedExecutionException ignored) {
+                    // 已关闭
+                }
+            }
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        synchronized (pending) {
+            for (CompletableFuture<Object> future : pending.values()) {
+                future.completeExceptionally(new CancellationException("RedisReadBatcher已关闭"));
+            }
+            pending.clear();
+        }
+    }
+}
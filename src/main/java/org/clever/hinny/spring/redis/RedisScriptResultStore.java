@@ -0,0 +1,164 @@
+package org.clever.hinny.spring.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.spring.mvc.ScriptResultRemoteStore;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 使用redis保存脚本执行结果(二级缓存)
+ * <p>
+ * 缓存Key包含一个版本号(保存在redis中)，缓存失效时版本号加一并通过pub/sub通知所有节点，旧版本的缓存自动过期
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 15:40 <br/>
+ */
+@Slf4j
+public class RedisScriptResultStore implements ScriptResultRemoteStore {
+    private final RedisConnectionRegistry connectionRegistry;
+    private final String redisName;
+    private final String keyPrefix;
+    private final byte[] versionKey;
+    private final String invalidateChannel;
+    private final List<Runnable> invalidateListeners = new CopyOnWriteArrayList<>();
+    private volatile RedisTemplate<?, ?> redisTemplate;
+    private volatile RedisMessageListenerContainer listenerContainer;
+    /**
+     * 当前缓存版本号(小于0表示未读取)
+     */
+    private volatile long version = -1;
+
+    /**
+     * @param connectionRegistry multiple-redis数据源
+     * @param redisName          使用的redis数据源名称
+     * @param keyPrefix          redis key前缀
+     * @param invalidateChannel  缓存失效通知的redis channel
+     */
+    public RedisScriptResultStore(RedisConnectionRegistry connectionRegistry, String redisName, String keyPrefix, String invalidateChannel) {
+        this.connectionRegistry = connectionRegistry;
+        this.redisName = redisName;
+        this.keyPrefix = keyPrefix;
+        this.versionKey = (keyPrefix + "version").getBytes(StandardCharsets.UTF_8);
+        this.invalidateChannel = invalidateChannel;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        final RedisTemplate<?, ?> redisTemplate = getRedisTemplate();
+        if (redisTemplate == null) {
+            return null;
+        }
+        final byte[] redisKey = getRedisKey(redisTemplate, key);
+        return redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(redisKey));
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMillis) {
+        final RedisTemplate<?, ?> redisTemplate = getRedisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        final byte[] redisKey = getRedisKey(redisTemplate, key);
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.set(
+                redisKey,
+                value,
+                Expiration.milliseconds(ttlMillis),
+                RedisStringCommands.SetOption.UPSERT
+        ));
+    }
+
+    @Override
+    public void invalidateAll() {
+        final RedisTemplate<?, ?> redisTemplate = getRedisTemplate();
+        if (redisTemplate == null) {
+            return;
+        }
+        final byte[] channel = invalidateChannel.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.execute((RedisCallback<Long>) connection -> {
+            Long newVersion = connection.incr(versionKey);
+            version = newVersion == null ? -1 : newVersion;
+            connection.publish(channel, String.valueOf(version).getBytes(StandardCharsets.UTF_8));
+            return newVersion;
+        });
+    }
+
+    @Override
+    public void subscribe(Runnable onInvalidate) {
+        invalidateListeners.add(onInvalidate);
+    }
+
+    /**
+     * 开始监听缓存失效通知(redis不可用时在后台重试)
+     */
+    public synchronized void start() {
+        final RedisConnectionFactory connectionFactory = connectionRegistry.getConnectionFactory(redisName);
+        if (connectionFactory == null) {
+            log.warn("#脚本结果二级缓存使用的redis数据源不存在: {}", redisName);
+            return;
+        }
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            // 其他节点使缓存失效，重新读取版本号
+            version = -1;
+            for (Runnable listener : invalidateListeners) {
+                try {
+                    listener.run();
+                } catch (Exception e) {
+                    log.warn("脚本结果缓存失效处理失败", e);
+                }
+            }
+        }, new ChannelTopic(invalidateChannel));
+        container.afterPropertiesSet();
+        container.start();
+        listenerContainer = container;
+    }
+
+    public synchronized void shutdown() {
+        if (listenerContainer != null) {
+            try {
+                listenerContainer.destroy();
+            } catch (Exception e) {
+                log.warn("关闭redis消息监听失败", e);
+            }
+            listenerContainer = null;
+        }
+    }
+
+    private RedisTemplate<?, ?> getRedisTemplate() {
+        if (redisTemplate == null) {
+            synchronized (this) {
+                if (redisTemplate == null) {
+                    RedisConnectionFactory connectionFactory = connectionRegistry.getConnectionFactory(redisName);
+                    if (connectionFactory == null) {
+                        return null;
+                    }
+                    RedisTemplate<?, ?> template = new RedisTemplate<>();
+                    template.setConnectionFactory(connectionFactory);
+                    template.afterPropertiesSet();
+                    redisTemplate = template;
+                }
+            }
+        }
+        return redisTemplate;
+    }
+
+    private byte[] getRedisKey(RedisTemplate<?, ?> redisTemplate, String key) {
+        long currentVersion = version;
+        if (currentVersion < 0) {
+            byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(versionKey));
+            currentVersion = value == null ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+            version = currentVersion;
+        }
+        return (keyPrefix + currentVersion + ":" + key).getBytes(StandardCharsets.UTF_8);
+    }
+}
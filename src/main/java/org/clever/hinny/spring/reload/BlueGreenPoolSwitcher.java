@@ -0,0 +1,167 @@
+package org.clever.hinny.spring.reload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.clever.hinny.api.pool.EngineInstancePool;
+import org.clever.hinny.mvc.HttpRequestScriptHandler;
+import org.clever.hinny.spring.mvc.ScriptHandlerInterceptor;
+import org.clever.hinny.spring.pool.EngineInstancePoolFactory;
+import org.clever.hinny.spring.pool.EngineInstancePools;
+import org.clever.hinny.spring.pool.EngineInstanceWarmUp;
+import org.clever.hinny.spring.pool.SwitchableEngineInstancePool;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 脚本引擎池蓝绿切换
+ * <p>
+ * 1. 在后台创建新的引擎池并预热(新的引擎实例加载最新的脚本)<br/>
+ * 2. engineInstancePool Bean({@link SwitchableEngineInstancePool})切换到新的引擎池，所有持有engineInstancePool的对象都使用新的引擎池<br/>
+ * 3. 使用新的引擎池创建HttpRequestScriptHandler，原子替换 {@link ScriptHandlerInterceptor} 使用的Handler<br/>
+ * 4. 旧的引擎池等待正在执行的请求完成、借出的引擎实例全部归还后关闭(最多等待drainTimeout)<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 23:30 <br/>
+ */
+@Slf4j
+public class BlueGreenPoolSwitcher {
+    /**
+     * 检查旧的引擎池是否可以关闭的时间间隔
+     */
+    private static final long Drain_Check_Interval = 100;
+
+    private final EngineInstancePoolFactory poolFactory;
+    private final Function<EngineInstancePool<Context, Value>, HttpRequestScriptHandler<Context, Value>> handlerFactory;
+    private final ScriptHandlerInterceptor scriptHandlerInterceptor;
+    /**
+     * 预热引擎实例(可以为null)
+     */
+    private final EngineInstanceWarmUp warmUp;
+    private final long drainTimeoutMillis;
+    /**
+     * 引擎池切换监听
+     */
+    private final List<Consumer<EngineInstancePool<Context, Value>>> swapListeners = new CopyOnWriteArrayList<>();
+    /**
+     * engineInstancePool Bean(切换当前使用的引擎池)
+     */
+    private final SwitchableEngineInstancePool switchablePool;
+
+    /**
+     * @param poolFactory              创建引擎池
+     * @param handlerFactory           使用引擎池创建HttpRequestScriptHandler
+     * @param scriptHandlerInterceptor 使用HttpRequestScriptHandler的拦截器
+     * @param switchablePool           engineInstancePool Bean
+     * @param warmUp                   预热引擎实例(可以为null)
+     * @param drainTimeoutMillis       旧的引擎池最长等待时间
+     */
+    public BlueGreenPoolSwitcher(
+            EngineInstancePoolFactory poolFactory,
+            Function<EngineInstancePool<Context, Value>, HttpRequestScriptHandler<Context, Value>> handlerFactory,
+            ScriptHandlerInterceptor scriptHandlerInterceptor,
+            SwitchableEngineInstancePool switchablePool,
+            EngineInstanceWarmUp warmUp,
+            long drainTimeoutMillis) {
+        this.poolFactory = poolFactory;
+        this.handlerFactory = handlerFactory;
+        this.scriptHandlerInterceptor = scriptHandlerInterceptor;
+        this.switchablePool = switchablePool;
+        this.warmUp = warmUp;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+    }
+
+    public EngineInstancePool<Context, Value> getCurrentPool() {
+        return switchablePool.getTarget();
+    }
+
+    /**
+     * 增加引擎池切换监听(参数是新的引擎池)
+     */
+    public void addSwapListener(Consumer<EngineInstancePool<Context, Value>> listener) {
+        swapListeners.add(listener);
+    }
+
+    /**
+     * 创建并预热新的引擎池，然后切换(阻塞直到切换完成，旧的引擎池在后台关闭)
+     */
+    public synchronized void reload() {
+        final long startTime = System.currentTimeMillis();
+        final EngineInstancePool<Context, Value> newPool = poolFactory.create();
+        prepare(newPool);
+        final EngineInstancePool<Context, Value> oldPool = switchablePool.switchTo(newPool);
+        final ScriptHandlerInterceptor.HandlerGeneration oldGeneration = scriptHandlerInterceptor.swapHandler(handlerFactory.apply(newPool));
+        for (Consumer<EngineInstancePool<Context, Value>> listener : swapListeners) {
+            try {
+                listener.accept(newPool);
+            } catch (Exception e) {
+                log.warn("引擎池切换监听处理失败", e);
+            }
+        }
+        log.info("#引擎池蓝绿切换完成 | 耗时: {}ms", System.currentTimeMillis() - startTime);
+        Thread thread = new Thread(() -> drain(oldGeneration, oldPool), "engine-pool-drain");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 预热新的引擎池
+     */
+    protected void prepare(EngineInstancePool<Context, Value> pool) {
+        if (warmUp != null) {
+            warmUp.warmUp(pool);
+            return;
+        }
+        final GenericObjectPool<?> objectPool = EngineInstancePools.getObjectPool(pool);
+        if (objectPool == null) {
+            return;
+        }
+        // 至少创建一个引擎实例，保证切换后第一个请求不需要等待创建引擎实例
+        final int count = Math.max(1, objectPool.getMinIdle());
+        for (int i = 0; i < count; i++) {
+            try {
+                objectPool.addObject();
+            } catch (Exception e) {
+                log.warn("#预先创建引擎实例失败", e);
+                break;
+            }
+        }
+    }
+
+    /**
+     * 等待旧的引擎池使用完成后关闭
+     */
+    protected void drain(ScriptHandlerInterceptor.HandlerGeneration oldGeneration, EngineInstancePool<Context, Value> oldPool) {
+        final GenericObjectPool<?> objectPool = EngineInstancePools.getObjectPool(oldPool);
+        final long deadline = System.currentTimeMillis() + drainTimeoutMillis;
+        try {
+            while (oldGeneration.getInFlight() > 0 || (objectPool != null && objectPool.getNumActive() > 0)) {
+                if (System.currentTimeMillis() >= deadline) {
+                    log.warn(
+                            "#等待旧的引擎池使用完成超时，强制关闭 | 执行中的请求数: {} | 使用中的引擎实例数: {}",
+                            oldGeneration.getInFlight(),
+                            objectPool == null ? -1 : objectPool.getNumActive()
+                    );
+                    break;
+                }
+                Thread.sleep(Drain_Check_Interval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (objectPool != null) {
+                objectPool.close();
+            } else {
+                oldPool.clear();
+            }
+            log.info("#旧的引擎池已关闭");
+        } catch (Exception e) {
+            log.warn("关闭旧的引擎池失败", e);
+        }
+    }
+}
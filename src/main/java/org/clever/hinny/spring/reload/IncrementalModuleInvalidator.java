@@ -0,0 +1,76 @@
+package org.clever.hinny.spring.reload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.clever.hinny.api.ScriptEngineInstance;
+import org.clever.hinny.spring.pool.EngineInstanceListener;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 脚本文件变化时增量刷新引擎实例的模块缓存
+ * <p>
+ * 文件变化时计算受影响的模块(文件本身以及依赖它的模块)，记录到每个引擎实例的待清除列表中，
+ * 引擎实例下一次被借出时才清除这些模块缓存，正在使用中的引擎实例不受影响。
+ * 未受影响的模块缓存(以及引擎实例本身)保持不变。
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 11:05 <br/>
+ */
+@Slf4j
+public class IncrementalModuleInvalidator implements EngineInstanceListener {
+    private final ModuleDependencyGraph dependencyGraph;
+    /**
+     * 引擎实例 --> 待清除的模块缓存
+     */
+    private final Map<ScriptEngineInstance<Context, Value>, Set<String>> pendingModules = new ConcurrentHashMap<>();
+
+    public IncrementalModuleInvalidator(String scriptPath) {
+        this.dependencyGraph = new ModuleDependencyGraph(scriptPath);
+        this.dependencyGraph.init();
+    }
+
+    /**
+     * 脚本文件发生变化
+     */
+    public void onFileChange(File file) {
+        dependencyGraph.update(file);
+        Set<String> affected = dependencyGraph.getAffectedModules(file);
+        if (affected.isEmpty()) {
+            return;
+        }
+        for (Set<String> modules : pendingModules.values()) {
+            modules.addAll(affected);
+        }
+        log.info("#增量刷新脚本模块 | 引擎实例数: {} | 模块: {}", pendingModules.size(), affected);
+    }
+
+    @Override
+    public void onCreate(ScriptEngineInstance<Context, Value> instance) {
+        pendingModules.put(instance, ConcurrentHashMap.newKeySet());
+    }
+
+    @Override
+    public void onActivate(ScriptEngineInstance<Context, Value> instance) {
+        Set<String> modules = pendingModules.get(instance);
+        if (modules == null || modules.isEmpty()) {
+            return;
+        }
+        List<String> removed = new ArrayList<>(modules);
+        modules.removeAll(removed);
+        for (String module : removed) {
+            instance.getContext().getModuleCache().remove(module);
+        }
+    }
+
+    @Override
+    public void onDestroy(ScriptEngineInstance<Context, Value> instance) {
+        pendingModules.remove(instance);
+    }
+}
@@ -0,0 +1,178 @@
+package org.clever.hinny.spring.reload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 脚本模块依赖关系(通过解析脚本中的 require("...") 得到)
+ * <p>
+ * 模块路径格式与脚本引擎的模块缓存一致: “/” + 相对于脚本根目录的路径，如: “/test/mvc/demo.js”
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 10:41 <br/>
+ */
+@Slf4j
+public class ModuleDependencyGraph {
+    private static final Pattern Require_Pattern = Pattern.compile("require\\s*\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)");
+    private static final String Node_Modules = "node_modules";
+    private static final String[] Resolve_Suffix = new String[]{"", ".js", ".json", "/index.js", "/index.json"};
+
+    /**
+     * 脚本根目录
+     */
+    private final Path rootPath;
+    /**
+     * 模块 --> 模块依赖的模块
+     */
+    private final Map<String, Set<String>> requires = new HashMap<>();
+    /**
+     * 模块 --> 依赖该模块的模块
+     */
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+
+    public ModuleDependencyGraph(String scriptPath) {
+        this.rootPath = Paths.get(scriptPath).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 扫描脚本根目录，初始化所有模块的依赖关系(不扫描node_modules)
+     */
+    public synchronized void init() {
+        requires.clear();
+        dependents.clear();
+        if (!Files.isDirectory(rootPath)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.walk(rootPath)) {
+            stream.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".js"))
+                    .filter(path -> !rootPath.relativize(path).toString().contains(Node_Modules))
+                    .forEach(this::parseRequires);
+        } catch (IOException e) {
+            log.warn("#扫描脚本模块依赖关系失败 | path={}", rootPath, e);
+        }
+        log.info("#脚本模块依赖关系初始化完成 | 模块数量: {}", requires.size());
+    }
+
+    /**
+     * 文件变化后更新模块依赖关系
+     */
+    public synchronized void update(File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        removeRequires(toModulePath(path));
+        if (Files.isRegularFile(path) && path.toString().endsWith(".js")) {
+            parseRequires(path);
+        }
+    }
+
+    /**
+     * 获取受文件变化影响的所有模块(包含文件本身以及直接或间接依赖它的模块)
+     */
+    public synchronized Set<String> getAffectedModules(File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        Set<String> affected = new LinkedHashSet<>();
+        if (!path.startsWith(rootPath)) {
+            return affected;
+        }
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(toModulePath(path));
+        while (!queue.isEmpty()) {
+            String module = queue.poll();
+            if (!affected.add(module)) {
+                continue;
+            }
+            queue.addAll(dependents.getOrDefault(module, Collections.emptySet()));
+        }
+        return affected;
+    }
+
+    private void parseRequires(Path path) {
+        final String module = toModulePath(path);
+        String content;
+        try {
+            content = FileUtils.readFileToString(path.toFile(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("#读取脚本文件失败 | path={}", path, e);
+            return;
+        }
+        Set<String> deps = new HashSet<>();
+        Matcher matcher = Require_Pattern.matcher(content);
+        while (matcher.find()) {
+            Path dep = resolve(path, matcher.group(1));
+            if (dep != null) {
+                deps.add(toModulePath(dep));
+            }
+        }
+        requires.put(module, deps);
+        for (String dep : deps) {
+            dependents.computeIfAbsent(dep, key -> new HashSet<>()).add(module);
+        }
+    }
+
+    private void removeRequires(String module) {
+        Set<String> deps = requires.remove(module);
+        if (deps == null) {
+            return;
+        }
+        for (String dep : deps) {
+            Set<String> set = dependents.get(dep);
+            if (set == null) {
+                continue;
+            }
+            set.remove(module);
+            if (set.isEmpty()) {
+                dependents.remove(dep);
+            }
+        }
+    }
+
+    /**
+     * 解析 require 的模块文件，解析失败返回null
+     */
+    private Path resolve(Path from, String id) {
+        if (StringUtils.isBlank(id)) {
+            return null;
+        }
+        if (id.startsWith("./") || id.startsWith("../")) {
+            return resolveFile(from.getParent().resolve(id));
+        }
+        if (id.startsWith("/")) {
+            return resolveFile(rootPath.resolve(id.substring(1)));
+        }
+        // 查找 node_modules
+        Path dir = from.getParent();
+        while (dir != null && dir.startsWith(rootPath)) {
+            Path file = resolveFile(dir.resolve(Node_Modules).resolve(id));
+            if (file != null) {
+                return file;
+            }
+            dir = dir.getParent();
+        }
+        return null;
+    }
+
+    private Path resolveFile(Path base) {
+        for (String suffix : Resolve_Suffix) {
+            Path path = Paths.get(base.toString() + suffix).normalize();
+            if (path.startsWith(rootPath) && Files.isRegularFile(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private String toModulePath(Path path) {
+        return "/" + StringUtils.replace(rootPath.relativize(path).toString(), "\\", "/");
+    }
+}
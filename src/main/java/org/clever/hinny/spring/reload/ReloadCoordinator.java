@@ -0,0 +1,190 @@
+package org.clever.hinny.spring.reload;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.clever.hinny.spring.config.ReloadBatchConfig;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 文件变化批量重新加载协调器
+ * <p>
+ * 1. 收集静默时间(quietPeriod)内的文件变化，按文件路径去重后一次性回调<br/>
+ * 2. 文件持续变化时最多等待maxDelay就回调一次<br/>
+ * 3. 配置了标记文件(markerFile)时，只有标记文件变化才会回调<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 22:20 <br/>
+ */
+@Slf4j
+public class ReloadCoordinator {
+    private final String name;
+    private final boolean enable;
+    private final long quietPeriodMillis;
+    private final long maxDelayMillis;
+    /**
+     * 标记文件绝对路径(可以为null)
+     */
+    private final Path markerPath;
+    /**
+     * 批量回调
+     */
+    private final Consumer<Set<File>> handler;
+    private final ScheduledExecutorService scheduler;
+    /**
+     * 等待重新加载的文件
+     */
+    private final Set<File> pending = new LinkedHashSet<>();
+    private final LongAdder eventCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    /**
+     * 第一个未处理的文件变化时间
+     */
+    private long firstEventTime = 0;
+    /**
+     * 标记文件是否已变化
+     */
+    private boolean markerTriggered = false;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * @param name     名称(用于日志和线程名)
+     * @param config   批量重新加载配置
+     * @param rootPath 监听的根路径(用于解析标记文件)
+     * @param handler  批量回调(文件已按路径去重)
+     */
+    public ReloadCoordinator(String name, ReloadBatchConfig config, String rootPath, Consumer<Set<File>> handler) {
+        this.name = name;
+        this.enable = config.isEnable();
+        this.quietPeriodMillis = Math.max(config.getQuietPeriod().toMillis(), 0);
+        this.maxDelayMillis = Math.max(config.getMaxDelay().toMillis(), quietPeriodMillis);
+        this.markerPath = StringUtils.isBlank(config.getMarkerFile())
+                ? null
+                : new File(rootPath, config.getMarkerFile()).toPath().toAbsolutePath().normalize();
+        this.handler = handler;
+        if (enable) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name + "-reload-coordinator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 配置了标记文件并且白名单不为空时，把标记文件加入白名单(否则标记文件的变化会被文件监听器过滤掉)
+     */
+    public static Set<String> withMarkerFile(Set<String> include, ReloadBatchConfig config) {
+        if (include == null || include.isEmpty() || !config.isEnable() || StringUtils.isBlank(config.getMarkerFile())) {
+            return include;
+        }
+        Set<String> result = new HashSet<>(include);
+        result.add(FilenameUtils.getName(config.getMarkerFile()));
+        return result;
+    }
+
+    /**
+     * 文件发生变化
+     */
+    public void onFileChange(File file) {
+        eventCount.increment();
+        final boolean isMarker = markerPath != null && markerPath.equals(file.toPath().toAbsolutePath().normalize());
+        if (!enable) {
+            if (!isMarker) {
+                apply(Collections.singleton(file));
+            }
+            return;
+        }
+        synchronized (pending) {
+            if (isMarker) {
+                markerTriggered = true;
+            } else {
+                pending.add(file);
+            }
+            if (markerPath != null && !markerTriggered) {
+                // 等待标记文件
+                return;
+            }
+            final long now = System.currentTimeMillis();
+            if (firstEventTime <= 0) {
+                firstEventTime = now;
+            }
+            long delay = Math.min(quietPeriodMillis, Math.max(firstEventTime + maxDelayMillis - now, 0));
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+            }
+            scheduledFlush = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 立即处理所有等待重新加载的文件(忽略标记文件)
+     */
+    public void flush() {
+        Set<File> batch;
+        synchronized (pending) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            firstEventTime = 0;
+            markerTriggered = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashSet<>(pending);
+            pending.clear();
+        }
+        apply(batch);
+    }
+
+    private void apply(Set<File> batch) {
+        batchCount.increment();
+        log.info("#[{}]批量重新加载 | 文件数: {}", name, batch.size());
+        try {
+            handler.accept(Collections.unmodifiableSet(batch));
+        } catch (Exception e) {
+            log.warn("[{}]批量重新加载失败 | 文件数: {}", name, batch.size(), e);
+        }
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 等待重新加载的文件数
+     */
+    public int getPendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * 收到的文件变化事件数
+     */
+    public long getEventCount() {
+        return eventCount.sum();
+    }
+
+    /**
+     * 执行的批量重新加载次数
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+}
@@ -0,0 +1,16 @@
+package org.clever.hinny.spring.reload;
+
+import java.io.File;
+
+/**
+ * 脚本文件变化监听(由脚本文件监听器scriptFileWatcher回调)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 18:10 <br/>
+ */
+public interface ScriptFileChangeListener {
+    /**
+     * 脚本文件(或者文件夹)发生变化(新增、修改、删除)
+     */
+    void onFileChange(File file);
+}
@@ -2,6 +2,8 @@ package org.clever.hinny.spring.utils;
 
 import com.zaxxer.hikari.HikariConfig;
 
+import java.util.Map;
+
 /**
  * 作者：lizw <br/>
  * 创建时间：2019/09/30 15:35 <br/>
@@ -88,4 +90,15 @@ public class MergeDataSourceConfig {
         }
         return target;
     }
+
+    /**
+     * 合并驱动参数(dataSourceProperties)，已配置的参数不会被覆盖
+     */
+    public static HikariConfig mergeDataSourceProperties(HikariConfig target, Map<String, String> properties) {
+        if (properties == null || properties.isEmpty()) {
+            return target;
+        }
+        properties.forEach((propertyName, value) -> target.getDataSourceProperties().putIfAbsent(propertyName, value));
+        return target;
+    }
 }
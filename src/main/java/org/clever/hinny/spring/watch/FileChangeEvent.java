@@ -0,0 +1,23 @@
+package org.clever.hinny.spring.watch;
+
+import lombok.Data;
+
+import java.io.File;
+
+/**
+ * 文件变化事件
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:25 <br/>
+ */
+@Data
+public class FileChangeEvent {
+    /**
+     * 变化类型
+     */
+    private final FileChangeType eventType;
+    /**
+     * 变化的文件或者文件夹
+     */
+    private final File fileOrDir;
+}
@@ -0,0 +1,22 @@
+package org.clever.hinny.spring.watch;
+
+/**
+ * 文件变化类型
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:24 <br/>
+ */
+public enum FileChangeType {
+    /**
+     * 新增
+     */
+    Create,
+    /**
+     * 修改
+     */
+    Modify,
+    /**
+     * 删除
+     */
+    Delete,
+}
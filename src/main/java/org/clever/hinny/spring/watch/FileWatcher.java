@@ -0,0 +1,19 @@
+package org.clever.hinny.spring.watch;
+
+/**
+ * 文件监听器
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:22 <br/>
+ */
+public interface FileWatcher {
+    /**
+     * 开始监听
+     */
+    void start();
+
+    /**
+     * 停止监听
+     */
+    void stop();
+}
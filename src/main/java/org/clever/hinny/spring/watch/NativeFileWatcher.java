@@ -0,0 +1,267 @@
+package org.clever.hinny.spring.watch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 基于操作系统文件事件(java.nio.file.WatchService)的文件监听器
+ * <p>
+ * 1. 递归注册所有子文件夹，新增的文件夹会自动注册<br/>
+ * 2. 文件变化后等待delayMillis内没有新的变化才回调(按文件路径去重)<br/>
+ * 3. include/exclude按文件名匹配，exclude匹配的文件夹不会被注册(如: node_modules)<br/>
+ * 4. 事件丢失(OVERFLOW)时重新扫描整个文件夹<br/>
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:35 <br/>
+ */
+@Slf4j
+public class NativeFileWatcher implements FileWatcher {
+    private static final WatchEvent.Kind<?>[] Watch_Kinds = new WatchEvent.Kind<?>[]{
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE,
+    };
+
+    private final Path rootPath;
+    private final Set<String> include;
+    private final Set<String> exclude;
+    private final IOCase ioCase;
+    private final Consumer<FileChangeEvent> listener;
+    private final long delayMillis;
+    /**
+     * WatchKey --> 监听的文件夹
+     */
+    private final Map<WatchKey, Path> watchKeys = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private Thread watchThread;
+    private volatile boolean running = false;
+
+    /**
+     * @param rootPath    监听的根路径
+     * @param include     监听文件列表(白名单)，支持通配符
+     * @param exclude     排除文件列表(黑名单)，支持通配符
+     * @param ioCase      文件名大小写敏感设置
+     * @param listener    文件变化回调
+     * @param delayMillis 文件变化后等待多久没有新的变化才回调
+     */
+    public NativeFileWatcher(String rootPath, Set<String> include, Set<String> exclude, IOCase ioCase, Consumer<FileChangeEvent> listener, long delayMillis) {
+        this.rootPath = Paths.get(rootPath).toAbsolutePath().normalize();
+        this.include = include == null ? Collections.emptySet() : new HashSet<>(include);
+        this.exclude = exclude == null ? Collections.emptySet() : new HashSet<>(exclude);
+        this.ioCase = ioCase;
+        this.listener = listener;
+        this.delayMillis = Math.max(delayMillis, 1);
+    }
+
+    /**
+     * 当前操作系统是否支持原生文件事件(JDK在不支持的平台上使用轮询实现的WatchService，这种情况返回false)
+     */
+    public static boolean isSupported() {
+        try (WatchService service = FileSystems.getDefault().newWatchService()) {
+            return !service.getClass().getName().contains("PollingWatchService");
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            watchService = rootPath.getFileSystem().newWatchService();
+            registerAll(rootPath, null);
+        } catch (IOException e) {
+            throw new IllegalStateException("注册文件监听失败: " + rootPath, e);
+        }
+        running = true;
+        watchThread = new Thread(this::watchLoop, "native-file-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+        log.info("#原生文件监听已启动 | 路径: {} | 监听文件夹数: {}", rootPath, watchKeys.size());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        watchThread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("关闭WatchService失败", e);
+        }
+        watchKeys.clear();
+    }
+
+    private void watchLoop() {
+        // 等待回调的文件变化(按路径去重，保持顺序)
+        final Map<Path, FileChangeType> pending = new LinkedHashMap<>();
+        while (running) {
+            WatchKey key;
+            try {
+                key = pending.isEmpty() ? watchService.take() : watchService.poll(delayMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+            if (key == null) {
+                // delayMillis内没有新的变化
+                dispatch(pending);
+                continue;
+            }
+            Path dir = watchKeys.get(key);
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (Objects.equals(event.kind(), StandardWatchEventKinds.OVERFLOW)) {
+                    log.warn("#文件事件丢失(OVERFLOW)，重新扫描文件夹: {}", rootPath);
+                    rescan(pending);
+                    continue;
+                }
+                if (dir == null) {
+                    continue;
+                }
+                Path path = dir.resolve((Path) event.context());
+                onEvent(event.kind(), path, pending);
+            }
+            if (!key.reset()) {
+                watchKeys.remove(key);
+            }
+        }
+    }
+
+    private void onEvent(WatchEvent.Kind<?> kind, Path path, Map<Path, FileChangeType> pending) {
+        if (Objects.equals(kind, StandardWatchEventKinds.ENTRY_DELETE)) {
+            if (!isExclude(path)) {
+                pending.put(path, FileChangeType.Delete);
+            }
+            return;
+        }
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            if (Objects.equals(kind, StandardWatchEventKinds.ENTRY_CREATE) && !isExclude(path)) {
+                // 新增的文件夹: 注册监听，文件夹中已经存在的文件当作新增处理
+                try {
+                    registerAll(path, pending);
+                } catch (IOException e) {
+                    log.warn("注册文件监听失败: {}", path, e);
+                }
+            }
+            return;
+        }
+        if (accept(path)) {
+            FileChangeType old = pending.get(path);
+            pending.put(path, Objects.equals(old, FileChangeType.Create) ? FileChangeType.Create : toChangeType(kind));
+        }
+    }
+
+    private void rescan(Map<Path, FileChangeType> pending) {
+        try {
+            registerAll(rootPath, null);
+            Files.walkFileTree(rootPath, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return !dir.equals(rootPath) && isExclude(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (accept(file)) {
+                        pending.putIfAbsent(file, FileChangeType.Modify);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            log.warn("重新扫描文件夹失败: {}", rootPath, e);
+        }
+    }
+
+    private void dispatch(Map<Path, FileChangeType> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Path, FileChangeType> events = new LinkedHashMap<>(pending);
+        pending.clear();
+        for (Map.Entry<Path, FileChangeType> entry : events.entrySet()) {
+            try {
+                listener.accept(new FileChangeEvent(entry.getValue(), entry.getKey().toFile()));
+            } catch (Exception e) {
+                log.warn("文件变化回调处理失败 | path={}", entry.getKey(), e);
+            }
+        }
+    }
+
+    /**
+     * 递归注册文件夹监听
+     *
+     * @param pending 不为null时，把文件夹中的文件当作新增文件处理
+     */
+    private void registerAll(Path start, Map<Path, FileChangeType> pending) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (!dir.equals(rootPath) && isExclude(dir)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                // 重复注册同一个文件夹返回的是同一个WatchKey
+                watchKeys.put(dir.register(watchService, Watch_Kinds), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (pending != null && accept(file)) {
+                    pending.put(file, FileChangeType.Create);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private boolean accept(Path file) {
+        if (isExclude(file)) {
+            return false;
+        }
+        if (include.isEmpty()) {
+            return true;
+        }
+        final String name = String.valueOf(file.getFileName());
+        for (String pattern : include) {
+            if (FilenameUtils.wildcardMatch(name, pattern, ioCase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isExclude(Path path) {
+        final String name = String.valueOf(path.getFileName());
+        for (String pattern : exclude) {
+            if (FilenameUtils.wildcardMatch(name, pattern, ioCase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static FileChangeType toChangeType(WatchEvent.Kind<?> kind) {
+        if (Objects.equals(kind, StandardWatchEventKinds.ENTRY_CREATE)) {
+            return FileChangeType.Create;
+        }
+        if (Objects.equals(kind, StandardWatchEventKinds.ENTRY_DELETE)) {
+            return FileChangeType.Delete;
+        }
+        return FileChangeType.Modify;
+    }
+}
@@ -0,0 +1,31 @@
+package org.clever.hinny.spring.watch;
+
+/**
+ * 轮询文件监听器(包装hinny内置的FileSystemWatcher)
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/18 21:28 <br/>
+ */
+public class PollingFileWatcher implements FileWatcher {
+    private final Runnable start;
+    private final Runnable stop;
+
+    /**
+     * @param start 开始监听
+     * @param stop  停止监听
+     */
+    public PollingFileWatcher(Runnable start, Runnable stop) {
+        this.start = start;
+        this.stop = stop;
+    }
+
+    @Override
+    public void start() {
+        start.run();
+    }
+
+    @Override
+    public void stop() {
+        stop.run();
+    }
+}
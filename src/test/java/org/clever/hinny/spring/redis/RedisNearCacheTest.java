@@ -0,0 +1,233 @@
+package org.clever.hinny.spring.redis;
+
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * RedisNearCache测试(不需要redis服务，使用内存中的redis替身)
+ * <p>
+ * 替身只实现近端缓存用到的命令: GET(RedisTemplate.opsForValue)和PSUBSCRIBE(键空间通知)，
+ * 测试方法可以直接运行(surefire的POJO测试)，也可以通过main方法运行
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 23:30 <br/>
+ */
+public class RedisNearCacheTest {
+    private static final String Key_Prefix = "app:";
+
+    public static void main(String[] args) throws Exception {
+        RedisNearCacheTest test = new RedisNearCacheTest();
+        test.testKeyspacePatternEscapesGlob();
+        test.testCacheHit();
+        test.testInvalidationDuringReadIsNotCached();
+        test.testNotificationOverflowClearsCache();
+        System.out.println("RedisNearCacheTest OK");
+    }
+
+    public void testKeyspacePatternEscapesGlob() {
+        assertEquals("__keyspace@*__:app:*", RedisNearCache.getKeyspacePattern("app:"));
+        assertEquals("__keyspace@*__:a\\*b\\?c\\[d\\]e\\\\f*", RedisNearCache.getKeyspacePattern("a*b?c[d]e\\f"));
+    }
+
+    public void testCacheHit() {
+        final FakeRedis redis = new FakeRedis();
+        redis.values.put("app:a", "v1");
+        final RedisNearCache nearCache = new RedisNearCache("test", redis.template, 100, 60_000, Key_Prefix);
+        assertEquals("v1", nearCache.get("app:a"));
+        redis.values.put("app:a", "v2");
+        // 没有收到失效通知，使用本地缓存
+        assertEquals("v1", nearCache.get("app:a"));
+        assertEquals(1, redis.readCount.get());
+        nearCache.invalidate("__keyspace@0__:app:a");
+        assertEquals("v2", nearCache.get("app:a"));
+        assertEquals(2, redis.readCount.get());
+        // 不以keyPrefix开头的Key不缓存
+        redis.values.put("other", "x");
+        nearCache.get("other");
+        nearCache.get("other");
+        assertEquals(4, redis.readCount.get());
+    }
+
+    public void testInvalidationDuringReadIsNotCached() {
+        final FakeRedis redis = new FakeRedis();
+        redis.values.put("app:a", "old");
+        final RedisNearCache nearCache = new RedisNearCache("test", redis.template, 100, 60_000, Key_Prefix);
+        // 读取redis期间Key被修改(失效通知先于读取结果到达)
+        redis.onRead = key -> {
+            redis.onRead = null;
+            redis.values.put(key, "new");
+            nearCache.invalidate("__keyspace@0__:" + key);
+        };
+        assertEquals("old", nearCache.get("app:a"));
+        assertEquals(0, nearCache.size());
+        assertEquals("new", nearCache.get("app:a"));
+        assertEquals("new", nearCache.get("app:a"));
+        assertEquals(2, redis.readCount.get());
+        // 其他Key失效也不缓存(读取期间的失效序号变化)
+        redis.values.put("app:b", "b1");
+        redis.onRead = key -> {
+            redis.onRead = null;
+            nearCache.clear();
+        };
+        assertEquals("b1", nearCache.get("app:b"));
+        assertEquals(0, nearCache.size());
+    }
+
+    public void testNotificationOverflowClearsCache() throws Exception {
+        final FakeRedis redis = new FakeRedis();
+        redis.values.put("app:a", "v1");
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RedisNearCache nearCache = new RedisNearCache("test", redis.template, 100, 60_000, Key_Prefix) {
+            @Override
+            protected void invalidate(String channel) {
+                if (blocked.getCount() > 0) {
+                    // 阻塞处理通知的线程，让后续的通知积压
+                    blocked.countDown();
+                    await(release);
+                }
+                super.invalidate(channel);
+            }
+        };
+        nearCache.start(false);
+        try {
+            final MessageListener listener = redis.awaitSubscription();
+            assertEquals("__keyspace@*__:app:*", redis.subscribedPattern.get());
+            final byte[] pattern = redis.subscribedPattern.get().getBytes(StandardCharsets.UTF_8);
+            final byte[] channel = "__keyspace@0__:app:other".getBytes(StandardCharsets.UTF_8);
+            final byte[] body = "set".getBytes(StandardCharsets.UTF_8);
+            listener.onMessage(new DefaultMessage(channel, body), pattern);
+            assertTrue(blocked.await(5, TimeUnit.SECONDS), "处理通知的线程没有启动");
+            nearCache.get("app:a");
+            assertEquals(1, nearCache.size());
+            // 填满等待队列，下一个通知被拒绝时清空本地缓存
+            for (int i = 0; i < RedisNearCache.Max_Pending_Notifications; i++) {
+                listener.onMessage(new DefaultMessage(channel, body), pattern);
+            }
+            assertEquals(1, nearCache.size());
+            listener.onMessage(new DefaultMessage(channel, body), pattern);
+            assertEquals(0, nearCache.size());
+        } finally {
+            release.countDown();
+            nearCache.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertEquals(Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError("expected: " + expected + " | actual: " + actual);
+        }
+    }
+
+    private static void assertTrue(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * 内存中的redis替身
+     */
+    private static class FakeRedis {
+        private final Map<String, Object> values = new ConcurrentHashMap<>();
+        private final AtomicInteger readCount = new AtomicInteger(0);
+        private final AtomicReference<MessageListener> subscribedListener = new AtomicReference<>();
+        private final AtomicReference<String> subscribedPattern = new AtomicReference<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        /**
+         * 读取Key时的回调(模拟读取期间发生的事件)
+         */
+        private volatile Consumer<String> onRead;
+        private final RedisTemplate<String, Object> template;
+
+        @SuppressWarnings("unchecked")
+        private FakeRedis() {
+            final ValueOperations<String, Object> valueOperations = (ValueOperations<String, Object>) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class[]{ValueOperations.class},
+                    (proxy, method, args) -> {
+                        if (!"get".equals(method.getName()) || args.length != 1) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        final String key = (String) args[0];
+                        readCount.incrementAndGet();
+                        final Object value = values.get(key);
+                        final Consumer<String> callback = onRead;
+                        if (callback != null) {
+                            callback.accept(key);
+                        }
+                        return value;
+                    }
+            );
+            final RedisConnection connection = (RedisConnection) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class[]{RedisConnection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "pSubscribe":
+                                subscribedListener.set((MessageListener) args[0]);
+                                subscribedPattern.set(new String(((byte[][]) args[1])[0], StandardCharsets.UTF_8));
+                                subscribed.countDown();
+                                return null;
+                            case "isSubscribed":
+                                return subscribedListener.get() != null;
+                            case "isClosed":
+                            case "isQueueing":
+                            case "isPipelined":
+                                return false;
+                            default:
+                                return null;
+                        }
+                    }
+            );
+            final RedisConnectionFactory connectionFactory = (RedisConnectionFactory) Proxy.newProxyInstance(
+                    getClass().getClassLoader(),
+                    new Class[]{RedisConnectionFactory.class},
+                    (proxy, method, args) -> {
+                        if ("getConnection".equals(method.getName())) {
+                            return connection;
+                        }
+                        if ("translateExceptionIfPossible".equals(method.getName())) {
+                            return null;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+            );
+            this.template = new RedisTemplate<String, Object>() {
+                @Override
+                public ValueOperations<String, Object> opsForValue() {
+                    return valueOperations;
+                }
+            };
+            this.template.setConnectionFactory(connectionFactory);
+        }
+
+        private MessageListener awaitSubscription() throws InterruptedException {
+            assertTrue(subscribed.await(5, TimeUnit.SECONDS), "没有订阅键空间通知");
+            return subscribedListener.get();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.clever.hinny.spring.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.clever.hinny.spring.config.MultipleRedisConfig;
+import org.clever.hinny.spring.config.RedisSerializerType;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.util.*;
+
+/**
+ * multiple-redis序列化格式基准测试(Json/Smile/Cbor，是否压缩)
+ * <p>
+ * 使用与 RedisConnectionRegistry 相同的 Jackson2JsonRedisSerializer，比较每种配置的序列化、反序列化吞吐量和存储的字节数。
+ * 直接运行main方法，可以传入参数: [行数] [测量时间(毫秒)]
+ * <p>
+ * 作者：lizw <br/>
+ * 创建时间：2026/10/19 23:10 <br/>
+ */
+public class RedisSerializerBenchmark {
+    private static final int Warm_Up_Millis = 1000;
+
+    public static void main(String[] args) {
+        final int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final long measureMillis = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        final Map<String, Object> small = newRow(1);
+        final List<Map<String, Object>> large = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            large.add(newRow(i));
+        }
+        final ObjectMapper source = new ObjectMapper();
+        System.out.printf("%-6s %-8s %-6s %10s %14s %14s%n", "type", "compress", "value", "bytes", "serialize/s", "deserialize/s");
+        for (RedisSerializerType type : RedisSerializerType.values()) {
+            for (boolean compress : new boolean[]{false, true}) {
+                MultipleRedisConfig.SerializerConfig config = new MultipleRedisConfig.SerializerConfig();
+                config.setType(type);
+                config.setCompress(compress);
+                Jackson2JsonRedisSerializer<Object> serializer = new Jackson2JsonRedisSerializer<>(Object.class);
+                serializer.setObjectMapper(RedisObjectMapperFactory.create(source, config));
+                run(type, compress, "small", small, serializer, measureMillis);
+                run(type, compress, "large", large, serializer, measureMillis);
+            }
+        }
+    }
+
+    private static void run(RedisSerializerType type, boolean compress, String name, Object value, Jackson2JsonRedisSerializer<Object> serializer, long measureMillis) {
+        final byte[] bytes = serializer.serialize(value);
+        if (!Objects.equals(value, serializer.deserialize(bytes))) {
+            throw new IllegalStateException("反序列化结果与原数据不一致: " + type + " | compress=" + compress);
+        }
+        measure(() -> serializer.serialize(value), Warm_Up_Millis);
+        measure(() -> serializer.deserialize(bytes), Warm_Up_Millis);
+        final double serializeOps = measure(() -> serializer.serialize(value), measureMillis);
+        final double deserializeOps = measure(() -> serializer.deserialize(bytes), measureMillis);
+        System.out.printf("%-6s %-8s %-6s %10d %14.0f %14.0f%n", type, compress, name, bytes.length, serializeOps, deserializeOps);
+    }
+
+    /**
+     * @return 每秒执行次数
+     */
+    private static double measure(Runnable runnable, long millis) {
+        final long deadline = System.nanoTime() + millis * 1_000_000L;
+        final long startTime = System.nanoTime();
+        long count = 0;
+        long now;
+        do {
+            for (int i = 0; i < 16; i++) {
+                runnable.run();
+            }
+            count += 16;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return count * 1_000_000_000.0 / (now - startTime);
+    }
+
+    private static Map<String, Object> newRow(int index) {
+        final Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 100000 + index);
+        row.put("orderCode", "SO-20261019-" + index);
+        row.put("customerName", "客户" + (index % 50));
+        row.put("status", index % 4);
+        row.put("amount", 1000.5 + index);
+        row.put("remark", "备注信息 remark " + (index % 10));
+        row.put("tags", Arrays.asList("a", "b", "tag-" + (index % 7)));
+        row.put("deleted", false);
+        return row;
+    }
+}